@@ -0,0 +1,300 @@
+package aula07;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/* Consultas de agregação sobre um FormasColunares, sem passar pela consola: área total e média
+   por cor, as K maiores formas, histograma de áreas e percentis de perímetro.
+   As formas são partidas em blocos (por tipo) no ForkJoinPool comum; cada bloco acumula nos
+   seus próprios arrays e no fim os parciais juntam-se, sem locks nem contadores partilhados.
+   Uma forma é referida por um long (tipo << 32 | posição no tipo), ver tipo()/indice(). */
+public final class AgregadosFormas {
+
+    private static final int BLOCO = 1 << 16;
+
+    private AgregadosFormas() {
+    }
+
+    public static int tipo(long ref) {
+        return (int) (ref >>> 32);
+    }
+
+    public static int indice(long ref) {
+        return (int) ref;
+    }
+
+    public static long ref(int tipo, int indice) {
+        return (long) tipo << 32 | indice;
+    }
+
+    /* soma[cor] = área total das formas dessa cor (ids de cor do FormasColunares) */
+    public static double[] areaPorCor(FormasColunares f) {
+        int nc = f.numCores();
+        return blocos(f)
+                .mapToObj(b -> {
+                    double[] s = new double[nc];
+                    int t = tipoDoBloco(f, b);
+                    int fim = fimBloco(f, b, t);
+                    for (int i = inicioBloco(f, b, t); i < fim; i++) {
+                        s[f.corDe(t, i)] += f.area(t, i);
+                    }
+                    return s;
+                })
+                .reduce(new double[nc], AgregadosFormas::somar);
+    }
+
+    public static int[] contarPorCor(FormasColunares f) {
+        int nc = f.numCores();
+        return blocos(f)
+                .mapToObj(b -> {
+                    int[] s = new int[nc];
+                    int t = tipoDoBloco(f, b);
+                    int fim = fimBloco(f, b, t);
+                    for (int i = inicioBloco(f, b, t); i < fim; i++) {
+                        s[f.corDe(t, i)]++;
+                    }
+                    return s;
+                })
+                .reduce(new int[nc], AgregadosFormas::somar);
+    }
+
+    /* média[cor] = área média das formas dessa cor, NaN se não há nenhuma. Uma só passagem:
+       cada bloco acumula (soma, contagem) lado a lado em s[2 * cor] e s[2 * cor + 1] */
+    public static double[] mediaAreaPorCor(FormasColunares f) {
+        int nc = f.numCores();
+        double[] s = blocos(f)
+                .mapToObj(b -> {
+                    double[] p = new double[2 * nc];
+                    int t = tipoDoBloco(f, b);
+                    int fim = fimBloco(f, b, t);
+                    for (int i = inicioBloco(f, b, t); i < fim; i++) {
+                        int c = f.corDe(t, i);
+                        p[2 * c] += f.area(t, i);
+                        p[2 * c + 1]++;
+                    }
+                    return p;
+                })
+                .reduce(new double[2 * nc], AgregadosFormas::somar);
+        double[] media = new double[nc];
+        for (int c = 0; c < nc; c++) {
+            media[c] = s[2 * c + 1] == 0 ? Double.NaN : s[2 * c] / s[2 * c + 1];
+        }
+        return media;
+    }
+
+    /* As k formas de maior área (ou todas, se houver menos), da maior para a menor. Cada bloco
+       guarda um heap mínimo de no máximo k (e nunca maior que o bloco) e os heaps juntam-se dois
+       a dois, cada junção com o espaço só para o que os dois têm. */
+    public static long[] maiores(FormasColunares f, int k) {
+        int lim = Math.min(k, f.tamanho());
+        if (lim <= 0) {
+            return new long[0];
+        }
+        Top top = blocos(f)
+                .mapToObj(b -> {
+                    int t = tipoDoBloco(f, b);
+                    int inicio = inicioBloco(f, b, t);
+                    int fim = fimBloco(f, b, t);
+                    Top h = new Top(lim, Math.min(lim, fim - inicio));
+                    for (int i = inicio; i < fim; i++) {
+                        h.oferecer(f.area(t, i), ref(t, i));
+                    }
+                    return h;
+                })
+                .reduce(new Top(lim, 0), Top::juntar);
+        return top.ordenado();
+    }
+
+    /* Contagens de áreas em n intervalos iguais de [min, max[; áreas fora ficam de fora */
+    public static long[] histogramaAreas(FormasColunares f, double min, double max, int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Número de intervalos tem de ser positivo: " + n);
+        }
+        if (!(max > min) || Double.isInfinite(max - min)) {
+            throw new IllegalArgumentException("Intervalo de áreas inválido: [" + min + ", " + max + "[");
+        }
+        double escala = n / (max - min);
+        return blocos(f)
+                .mapToObj(b -> {
+                    long[] h = new long[n];
+                    int t = tipoDoBloco(f, b);
+                    int fim = fimBloco(f, b, t);
+                    for (int i = inicioBloco(f, b, t); i < fim; i++) {
+                        double a = f.area(t, i);
+                        if (a >= min && a < max) {
+                            h[Math.min(n - 1, (int) ((a - min) * escala))]++;
+                        }
+                    }
+                    return h;
+                })
+                .reduce(new long[n], AgregadosFormas::somar);
+    }
+
+    /* Percentis (0..100) exatos dos perímetros pelo método do rank mais próximo; ordena uma
+       cópia dos perímetros com Arrays.parallelSort. NaN se não há formas. */
+    public static double[] percentisPerimetro(FormasColunares f, double... percentis) {
+        int n = f.tamanho();
+        double[] per = new double[n];
+        int base1 = f.tamanho(FormasColunares.CIRCULO);
+        int base2 = base1 + f.tamanho(FormasColunares.RETANGULO);
+        blocos(f).forEach(b -> {
+            int t = tipoDoBloco(f, b);
+            int base = t == FormasColunares.CIRCULO ? 0 : t == FormasColunares.RETANGULO ? base1 : base2;
+            int fim = fimBloco(f, b, t);
+            for (int i = inicioBloco(f, b, t); i < fim; i++) {
+                per[base + i] = f.perimetro(t, i);
+            }
+        });
+        Arrays.parallelSort(per);
+
+        double[] res = new double[percentis.length];
+        for (int j = 0; j < percentis.length; j++) {
+            if (n == 0) {
+                res[j] = Double.NaN;
+                continue;
+            }
+            int rank = (int) Math.ceil(percentis[j] / 100 * n);
+            res[j] = per[Math.max(0, Math.min(n - 1, rank - 1))];
+        }
+        return res;
+    }
+
+    /* Os blocos numeram-se seguidos: primeiro os dos círculos, depois retângulos, depois triângulos */
+    private static IntStream blocos(FormasColunares f) {
+        int total = 0;
+        for (int t = FormasColunares.CIRCULO; t <= FormasColunares.TRIANGULO; t++) {
+            total += nBlocos(f, t);
+        }
+        return IntStream.range(0, total).parallel();
+    }
+
+    private static int nBlocos(FormasColunares f, int t) {
+        return (f.tamanho(t) + BLOCO - 1) / BLOCO;
+    }
+
+    private static int tipoDoBloco(FormasColunares f, int b) {
+        int t = FormasColunares.CIRCULO;
+        while (b >= nBlocos(f, t)) {
+            b -= nBlocos(f, t);
+            t++;
+        }
+        return t;
+    }
+
+    private static int inicioBloco(FormasColunares f, int b, int t) {
+        for (int u = FormasColunares.CIRCULO; u < t; u++) {
+            b -= nBlocos(f, u);
+        }
+        return b * BLOCO;
+    }
+
+    private static int fimBloco(FormasColunares f, int b, int t) {
+        return Math.min(f.tamanho(t), inicioBloco(f, b, t) + BLOCO);
+    }
+
+    private static double[] somar(double[] a, double[] b) {
+        double[] s = a.clone();
+        for (int i = 0; i < s.length; i++) {
+            s[i] += b[i];
+        }
+        return s;
+    }
+
+    private static int[] somar(int[] a, int[] b) {
+        int[] s = a.clone();
+        for (int i = 0; i < s.length; i++) {
+            s[i] += b[i];
+        }
+        return s;
+    }
+
+    private static long[] somar(long[] a, long[] b) {
+        long[] s = a.clone();
+        for (int i = 0; i < s.length; i++) {
+            s[i] += b[i];
+        }
+        return s;
+    }
+
+    /* Heap mínimo de até k (área, ref): a raiz é a menor das k maiores vistas. Os arrays têm só
+       o tamanho que quem o cria sabe que vai precisar (capacidade <= k) */
+    private static class Top {
+
+        final int k;
+        final double[] area;
+        final long[] ref;
+        int n = 0;
+
+        Top(int k, int capacidade) {
+            this.k = k;
+            area = new double[capacidade];
+            ref = new long[capacidade];
+        }
+
+        void oferecer(double a, long r) {
+            if (n < area.length) {
+                int i = n++;
+                while (i > 0) {
+                    int p = (i - 1) >> 1;
+                    if (area[p] <= a) {
+                        break;
+                    }
+                    area[i] = area[p];
+                    ref[i] = ref[p];
+                    i = p;
+                }
+                area[i] = a;
+                ref[i] = r;
+            }
+            else if (a > area[0]) {
+                descer(a, r);
+            }
+        }
+
+        private void descer(double a, long r) {
+            int i = 0;
+            while (true) {
+                int f = 2 * i + 1;
+                if (f >= n) {
+                    break;
+                }
+                if (f + 1 < n && area[f + 1] < area[f]) {
+                    f++;
+                }
+                if (a <= area[f]) {
+                    break;
+                }
+                area[i] = area[f];
+                ref[i] = ref[f];
+                i = f;
+            }
+            area[i] = a;
+            ref[i] = r;
+        }
+
+        /* Novo heap com o conteúdo dos dois (o reduce não pode mudar a identidade) */
+        static Top juntar(Top x, Top y) {
+            Top s = new Top(x.k, Math.min(x.k, x.n + y.n));
+            for (int i = 0; i < x.n; i++) {
+                s.oferecer(x.area[i], x.ref[i]);
+            }
+            for (int i = 0; i < y.n; i++) {
+                s.oferecer(y.area[i], y.ref[i]);
+            }
+            return s;
+        }
+
+        long[] ordenado() {
+            long[] out = new long[n];
+            for (int j = n - 1; j >= 0; j--) {
+                out[j] = ref[0];
+                double a = area[n - 1];
+                long r = ref[n - 1];
+                n--;
+                descer(a, r);
+            }
+            return out;
+        }
+    }
+
+}
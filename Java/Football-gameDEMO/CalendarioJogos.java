@@ -0,0 +1,89 @@
+package aula07;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/* Calendário de jogos indexado por dia época (Date.diaEpoca).
+   Os jogos ficam agrupados por dia (um bucket por dia com jogos, dias ordenados numa árvore)
+   e cada equipa tem os seus dias de jogo noutra árvore. Agendar mete o jogo no bucket do dia e
+   nas árvores das equipas em O(log dias), por isso agendar e consultar podem alternar sem que
+   nada tenha de ser refeito. Dentro de um dia os jogos ficam pela ordem de agendamento. */
+public class CalendarioJogos {
+
+    private static final String[] DIAS_SEMANA = {"Segunda", "Terça", "Quarta", "Quinta", "Sexta", "Sábado", "Domingo"};
+
+    private final TreeMap<Integer, ArrayList<Jogo>> porDia = new TreeMap<>();
+    /* Para cada equipa, o primeiro jogo agendado em cada dia em que joga */
+    private final IdentityHashMap<Equipa, TreeMap<Integer, Jogo>> porEquipa = new IdentityHashMap<>();
+    private int n = 0;
+
+    public int tamanho() {
+        return n;
+    }
+
+    public void agendar(Jogo j, Date data) {
+        agendar(j, data.diaEpoca());
+    }
+
+    public void agendar(Jogo j, int diaEpoca) {
+        porDia.computeIfAbsent(diaEpoca, d -> new ArrayList<>()).add(j);
+        juntar(j.getEquipa1(), diaEpoca, j);
+        if (j.getEquipa2() != j.getEquipa1()) {
+            juntar(j.getEquipa2(), diaEpoca, j);
+        }
+        n++;
+    }
+
+    /* Jogos do dia, O(log dias) */
+    public List<Jogo> jogosNoDia(int diaEpoca) {
+        ArrayList<Jogo> jogos = porDia.get(diaEpoca);
+        if (jogos == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(jogos);
+    }
+
+    public List<Jogo> jogosNoDia(Date data) {
+        return jogosNoDia(data.diaEpoca());
+    }
+
+    /* Jogos com dia em [de, ate], por ordem de dia; O(log dias + jogos devolvidos) */
+    public List<Jogo> jogosEntre(int de, int ate) {
+        if (ate < de) {
+            return Collections.emptyList();
+        }
+        ArrayList<Jogo> jogos = new ArrayList<>();
+        for (ArrayList<Jogo> doDia : porDia.subMap(de, true, ate, true).values()) {
+            jogos.addAll(doDia);
+        }
+        return Collections.unmodifiableList(jogos);
+    }
+
+    /* Próximo jogo da equipa no dia indicado ou depois, ou null; O(log dias da equipa) */
+    public Jogo proximoJogo(Equipa equipa, int desdeDia) {
+        TreeMap<Integer, Jogo> dias = porEquipa.get(equipa);
+        if (dias == null) {
+            return null;
+        }
+        Map.Entry<Integer, Jogo> e = dias.ceilingEntry(desdeDia);
+        return e != null ? e.getValue() : null;
+    }
+
+    /* 1 = segunda ... 7 = domingo (01/01/1970 foi uma quinta) */
+    public static int diaSemana(int diaEpoca) {
+        return Math.floorMod(diaEpoca + 3, 7) + 1;
+    }
+
+    public static String nomeDiaSemana(int diaEpoca) {
+        return DIAS_SEMANA[diaSemana(diaEpoca) - 1];
+    }
+
+    private void juntar(Equipa e, int diaEpoca, Jogo j) {
+        porEquipa.computeIfAbsent(e, k -> new TreeMap<>()).putIfAbsent(diaEpoca, j);
+    }
+
+}
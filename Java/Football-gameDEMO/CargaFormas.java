@@ -0,0 +1,403 @@
+package aula07;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/* Carrega ficheiros grandes de formas para um FormasColunares, em paralelo e sem Strings por campo.
+   CSV, uma forma por linha (linhas vazias e começadas por # são ignoradas):
+       C,raio,x,y,cor    R,comprimento,altura,cor    T,lado1,lado2,lado3,cor
+   Binário (little-endian): "FORM", número de cores, cada cor (short com o tamanho + UTF-8),
+   número de formas (long) e depois registos de 32 bytes: tipo, cor, a, b, c como em FormasColunares.
+   O ficheiro é mapeado em blocos de ~16 MB; cada bloco é lido por uma tarefa do ForkJoinPool comum
+   para um FormasColunares próprio e no fim juntam-se pela ordem do ficheiro.
+   Dimensões têm de ser positivas e os triângulos cumprir a desigualdade triangular (como no Ex01);
+   as linhas que falham contam como inválidas e não entram. */
+public final class CargaFormas {
+
+    public static final int BYTES_REGISTO = 32;
+
+    private static final int MAGIA = 0x4D524F46; /* "FORM" */
+    private static final long BLOCO = 16 << 20;
+    private static final int MAX_LINHA = 4096;
+
+    private static final double[] POT10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private CargaFormas() {
+    }
+
+    /* Formas carregadas e quantas linhas/registos foram rejeitados */
+    public static class Carga {
+
+        public final FormasColunares formas;
+        public final long invalidas;
+
+        Carga(FormasColunares formas, long invalidas) {
+            this.formas = formas;
+            this.invalidas = invalidas;
+        }
+    }
+
+    public static Carga lerCsv(Path ficheiro) throws IOException {
+        try (FileChannel canal = FileChannel.open(ficheiro, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            int blocos = (int) ((tamanho + BLOCO - 1) / BLOCO);
+            Parcial[] partes = correr(blocos, b -> lerBlocoCsv(canal, tamanho, b * BLOCO, Math.min(tamanho, (b + 1) * BLOCO)));
+            return juntar(partes);
+        }
+    }
+
+    public static Carga lerBinario(Path ficheiro) throws IOException {
+        try (FileChannel canal = FileChannel.open(ficheiro, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            /* O mapeamento só lê as páginas usadas; o cabeçalho tem de caber nos primeiros 2 GB */
+            ByteBuffer cab = canal.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(tamanho, Integer.MAX_VALUE))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (cab.remaining() < 8 || cab.getInt() != MAGIA) {
+                throw new IOException("Ficheiro não é de formas: " + ficheiro);
+            }
+            int numCores = cab.getInt();
+            /* Cada cor ocupa pelo menos os 2 bytes do tamanho */
+            if (numCores < 0 || numCores > cab.remaining() / 2) {
+                throw new IOException("Número de cores inválido (" + numCores + ") no ficheiro de formas: " + ficheiro);
+            }
+            String[] cores = new String[numCores];
+            for (int i = 0; i < cores.length; i++) {
+                precisar(cab, 2, ficheiro);
+                byte[] b = new byte[cab.getShort() & 0xFFFF];
+                precisar(cab, b.length, ficheiro);
+                cab.get(b);
+                cores[i] = new String(b, StandardCharsets.UTF_8);
+            }
+            precisar(cab, 8, ficheiro);
+            long n = cab.getLong();
+            long inicio = cab.position();
+            if (n < 0) {
+                throw new IOException("Número de formas negativo (" + n + ") no ficheiro de formas: " + ficheiro);
+            }
+            if (n > (tamanho - inicio) / BYTES_REGISTO) {
+                throw new IOException("Ficheiro de formas truncado: " + n + " registos anunciados, "
+                        + (tamanho - inicio) / BYTES_REGISTO + " no ficheiro: " + ficheiro);
+            }
+            long porBloco = BLOCO / BYTES_REGISTO;
+            int blocos = (int) ((n + porBloco - 1) / porBloco);
+            Parcial[] partes = correr(blocos, b -> {
+                long de = b * porBloco;
+                long ate = Math.min(n, de + porBloco);
+                return lerBlocoBinario(canal, inicio + de * BYTES_REGISTO, (int) (ate - de), cores);
+            });
+            return juntar(partes);
+        }
+    }
+
+    public static void escreverBinario(FormasColunares formas, Path ficheiro) throws IOException {
+        byte[][] cores = new byte[formas.numCores()][];
+        long cab = 16;
+        for (int i = 0; i < cores.length; i++) {
+            cores[i] = formas.cor(i).getBytes(StandardCharsets.UTF_8);
+            cab += 2 + cores[i].length;
+        }
+        try (FileChannel canal = FileChannel.open(ficheiro, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = canal.map(FileChannel.MapMode.READ_WRITE, 0, cab).order(ByteOrder.LITTLE_ENDIAN);
+            b.putInt(MAGIA).putInt(cores.length);
+            for (byte[] c : cores) {
+                b.putShort((short) c.length).put(c);
+            }
+            b.putLong(formas.tamanho());
+
+            long p = cab;
+            for (int t = FormasColunares.CIRCULO; t <= FormasColunares.TRIANGULO; t++) {
+                int i = 0;
+                while (i < formas.tamanho(t)) {
+                    int k = (int) Math.min(formas.tamanho(t) - i, BLOCO / BYTES_REGISTO);
+                    ByteBuffer r = canal.map(FileChannel.MapMode.READ_WRITE, p, (long) k * BYTES_REGISTO)
+                            .order(ByteOrder.LITTLE_ENDIAN);
+                    for (int j = i; j < i + k; j++) {
+                        r.putInt(t).putInt(formas.corDe(t, j))
+                                .putDouble(formas.a(t, j)).putDouble(formas.b(t, j)).putDouble(formas.c(t, j));
+                    }
+                    p += (long) k * BYTES_REGISTO;
+                    i += k;
+                }
+            }
+        }
+    }
+
+    private static void precisar(ByteBuffer cab, int bytes, Path ficheiro) throws IOException {
+        if (cab.remaining() < bytes) {
+            throw new IOException("Cabeçalho do ficheiro de formas truncado: " + ficheiro);
+        }
+    }
+
+    /* Mesmas regras que o Ex01 aplica à mão */
+    public static boolean valida(int tipo, double a, double b, double c) {
+        switch (tipo) {
+            case FormasColunares.CIRCULO:
+                return a > 0 && Double.isFinite(b) && Double.isFinite(c);
+            case FormasColunares.RETANGULO:
+                return a > 0 && b > 0;
+            case FormasColunares.TRIANGULO:
+                return a > 0 && b > 0 && c > 0 && a < b + c && b < a + c && c < a + b;
+            default:
+                return false;
+        }
+    }
+
+    private static class Parcial {
+
+        final FormasColunares formas = new FormasColunares();
+        long invalidas = 0;
+    }
+
+    private interface Tarefa {
+        Parcial ler(long bloco) throws IOException;
+    }
+
+    private static Parcial[] correr(int blocos, Tarefa t) throws IOException {
+        try {
+            return IntStream.range(0, blocos).parallel()
+                    .mapToObj(b -> {
+                        try {
+                            return t.ler(b);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .toArray(Parcial[]::new);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Carga juntar(Parcial[] partes) {
+        if (partes.length == 0) {
+            return new Carga(new FormasColunares(), 0);
+        }
+        FormasColunares f = partes[0].formas;
+        long invalidas = partes[0].invalidas;
+        for (int i = 1; i < partes.length; i++) {
+            f.juntar(partes[i].formas);
+            invalidas += partes[i].invalidas;
+        }
+        return new Carga(f, invalidas);
+    }
+
+    private static Parcial lerBlocoBinario(FileChannel canal, long de, int n, String[] cores) throws IOException {
+        Parcial p = new Parcial();
+        for (String c : cores) {
+            p.formas.idCor(c);
+        }
+        ByteBuffer b = canal.map(FileChannel.MapMode.READ_ONLY, de, (long) n * BYTES_REGISTO).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < n; i++) {
+            int o = i * BYTES_REGISTO;
+            int tipo = b.getInt(o);
+            int cor = b.getInt(o + 4);
+            double va = b.getDouble(o + 8);
+            double vb = b.getDouble(o + 16);
+            double vc = b.getDouble(o + 24);
+            if (cor < 0 || cor >= cores.length || !valida(tipo, va, vb, vc)) {
+                p.invalidas++;
+            }
+            else {
+                adicionar(p.formas, tipo, va, vb, vc, cor);
+            }
+        }
+        return p;
+    }
+
+    /* Lê as linhas que começam em [de, ate[; a última pode acabar depois de ate */
+    private static Parcial lerBlocoCsv(FileChannel canal, long tamanho, long de, long ate) throws IOException {
+        Parcial p = new Parcial();
+        long inicio = Math.max(0, de - 1);
+        long fim = Math.min(tamanho, ate + MAX_LINHA);
+        ByteBuffer b = canal.map(FileChannel.MapMode.READ_ONLY, inicio, fim - inicio);
+        int lim = b.limit();
+        int limInicio = (int) (ate - inicio);
+        int i = 0;
+        if (de > 0) {
+            /* A linha que começa antes de de pertence ao bloco anterior */
+            while (i < lim && b.get(i) != '\n') {
+                i++;
+            }
+            i++;
+        }
+        Linha l = new Linha();
+        /* O FormasColunares do bloco é novo, por isso os ids do dicionário são os ids de cor */
+        DicionarioBytes cores = new DicionarioBytes();
+        while (i < limInicio && i < lim) {
+            int fimLinha = i;
+            while (fimLinha < lim && b.get(fimLinha) != '\n') {
+                fimLinha++;
+            }
+            if (fimLinha == lim && inicio + lim < tamanho) {
+                throw new IOException("Linha com mais de " + MAX_LINHA + " bytes na posição " + (inicio + i));
+            }
+            int f = fimLinha > i && b.get(fimLinha - 1) == '\r' ? fimLinha - 1 : fimLinha;
+            if (f > i && b.get(i) != '#') {
+                if (l.ler(b, i, f)) {
+                    int cor = cores.id(b, l.corDe, l.corAte);
+                    if (cor == p.formas.numCores()) {
+                        p.formas.idCor(cores.nome(cor));
+                    }
+                    adicionar(p.formas, l.tipo, l.a, l.b, l.c, cor);
+                }
+                else {
+                    p.invalidas++;
+                }
+            }
+            i = fimLinha + 1;
+        }
+        return p;
+    }
+
+    private static void adicionar(FormasColunares f, int tipo, double a, double b, double c, int cor) {
+        switch (tipo) {
+            case FormasColunares.CIRCULO:
+                f.addCirculo(a, b, c, cor);
+                break;
+            case FormasColunares.RETANGULO:
+                f.addRetangulo(a, b, cor);
+                break;
+            default:
+                f.addTriangulo(a, b, c, cor);
+                break;
+        }
+    }
+
+    /* Campos de uma linha CSV lidos diretamente dos bytes */
+    private static class Linha {
+
+        int tipo;
+        double a;
+        double b;
+        double c;
+        int corDe;
+        int corAte;
+
+        private int p;
+
+        boolean ler(ByteBuffer buf, int de, int ate) {
+            if (ate - de < 2 || buf.get(de + 1) != ',') {
+                return false;
+            }
+            switch (buf.get(de)) {
+                case 'C':
+                case 'c':
+                    tipo = FormasColunares.CIRCULO;
+                    break;
+                case 'R':
+                case 'r':
+                    tipo = FormasColunares.RETANGULO;
+                    break;
+                case 'T':
+                case 't':
+                    tipo = FormasColunares.TRIANGULO;
+                    break;
+                default:
+                    return false;
+            }
+            p = de + 2;
+            a = numero(buf, ate);
+            b = numero(buf, ate);
+            c = tipo == FormasColunares.RETANGULO ? 0 : numero(buf, ate);
+            if (Double.isNaN(a) || Double.isNaN(b) || Double.isNaN(c)) {
+                return false;
+            }
+            corDe = p;
+            corAte = ate;
+            while (corDe < corAte && buf.get(corDe) == ' ') {
+                corDe++;
+            }
+            while (corAte > corDe && buf.get(corAte - 1) == ' ') {
+                corAte--;
+            }
+            for (int k = corDe; k < corAte; k++) {
+                if (buf.get(k) == ',') {
+                    return false;
+                }
+            }
+            return corAte > corDe && valida(tipo, a, b, c);
+        }
+
+        /* Número decimal até à próxima vírgula (que é consumida); NaN se não for válido.
+           Mantissa até 18 dígitos e expoente pequeno saem exatos por uma divisão ou
+           multiplicação; os outros casos (raros) passam pelo Double.parseDouble. */
+        private double numero(ByteBuffer buf, int ate) {
+            int i = p;
+            while (i < ate && buf.get(i) == ' ') {
+                i++;
+            }
+            int ini = i;
+            boolean neg = false;
+            if (i < ate && (buf.get(i) == '-' || buf.get(i) == '+')) {
+                neg = buf.get(i) == '-';
+                i++;
+            }
+            long mant = 0;
+            int digitos = 0;
+            int escala = 0;
+            boolean ponto = false;
+            boolean lento = false;
+            for (; i < ate; i++) {
+                int ch = buf.get(i);
+                if (ch >= '0' && ch <= '9') {
+                    if (digitos < 18) {
+                        mant = mant * 10 + (ch - '0');
+                        if (mant != 0) {
+                            digitos++;
+                        }
+                        if (ponto) {
+                            escala++;
+                        }
+                    }
+                    else {
+                        lento = true;
+                    }
+                }
+                else if (ch == '.' && !ponto) {
+                    ponto = true;
+                }
+                else if (ch == 'e' || ch == 'E') {
+                    lento = true;
+                }
+                else if (ch == ',' || ch == ' ') {
+                    break;
+                }
+                else if (!lento) {
+                    return Double.NaN;
+                }
+            }
+            int fimNum = i;
+            while (i < ate && buf.get(i) == ' ') {
+                i++;
+            }
+            if (i >= ate || buf.get(i) != ',' || fimNum == ini) {
+                return Double.NaN;
+            }
+            p = i + 1;
+
+            if (lento || mant >= 1L << 53 || escala >= POT10.length) {
+                byte[] s = new byte[fimNum - ini];
+                buf.get(ini, s);
+                try {
+                    return Double.parseDouble(new String(s, StandardCharsets.US_ASCII));
+                } catch (NumberFormatException e) {
+                    return Double.NaN;
+                }
+            }
+            double v = mant / POT10[escala];
+            return neg ? -v : v;
+        }
+    }
+
+}
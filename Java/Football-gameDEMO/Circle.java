@@ -1,9 +1,17 @@
 package aula07;
 
+import java.util.Arrays;
+import java.util.Objects;
+
 public class Circle extends Forma {
+    private static final IndiceCirculos[] SEM_INDICES = new IndiceCirculos[0];
+
     private double raio;
     private Ponto centro;
 
+    /* Índices onde o círculo está; são avisados quando o raio ou o centro mudam */
+    private IndiceCirculos[] indices = SEM_INDICES;
+
     public Circle(double r, Ponto c, String cor) {
         super(cor);
         raio = r;
@@ -19,9 +27,32 @@ public class Circle extends Forma {
 
     public void setRaio(double raio) {
         this.raio = raio;
+        avisarIndices();
     }
     public void setCentro(Ponto centro) {
         this.centro = centro;
+        avisarIndices();
+    }
+
+    void entrouEm(IndiceCirculos indice) {
+        indices = Arrays.copyOf(indices, indices.length + 1);
+        indices[indices.length - 1] = indice;
+    }
+
+    void saiuDe(IndiceCirculos indice) {
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] == indice) {
+                indices[i] = indices[indices.length - 1];
+                indices = indices.length == 1 ? SEM_INDICES : Arrays.copyOf(indices, indices.length - 1);
+                return;
+            }
+        }
+    }
+
+    private void avisarIndices() {
+        for (IndiceCirculos i : indices) {
+            i.atualizar(this);
+        }
     }
 
     public double area() {
@@ -52,11 +83,25 @@ public class Circle extends Forma {
         }
         Circle other = (Circle) obj;
 
-        return this.raio == other.raio && this.centro == other.centro && super.equals(obj);
+        /* Como no FormasUnicas: 0.0 e -0.0 são iguais e NaN é igual a NaN */
+        if (!igual(this.raio, other.raio) || !super.equals(obj)) {
+            return false;
+        }
+        if (this.centro == null || other.centro == null) {
+            return this.centro == other.centro;
+        }
+        return igual(this.centro.getX(), other.centro.getX()) && igual(this.centro.getY(), other.centro.getY());
 	}
 
     @Override
     public int hashCode() {
-        return Double.hashCode(raio);
+        if (centro == null) {
+            return Double.hashCode(raio + 0.0);
+        }
+        return Objects.hash(raio + 0.0, centro.getX() + 0.0, centro.getY() + 0.0);
+    }
+
+    private static boolean igual(double x, double y) {
+        return Double.compare(x + 0.0, y + 0.0) == 0;
     }
 }
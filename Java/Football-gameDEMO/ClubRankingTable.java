@@ -0,0 +1,378 @@
+package aula07;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/* Ranking de clubes (Python/Data-Register-RankFut/Soccer_Football Clubs Ranking.csv) em colunas:
+       ranking,club name ,country,point score,1 year change,previous point scored,symbol change
+   Os números ficam em int[]; país e nome do clube ficam codificados em dicionário (int por linha).
+   A variação leva o sinal do "symbol change", como no futfile do Futebol.py; se já vier negativa
+   (como a escrita pelo SimulacaoElo) fica como está.
+   O ficheiro é mapeado em memória e lido byte a byte, sem split nem Strings por campo;
+   linhas mal formadas são contadas em invalidas() e ficam de fora.
+   No fim da leitura constroem-se listas de linhas por país (ordenadas por ranking) e por
+   clube, em arrays contíguos (início de cada lista + linhas), e o ranking médio por país:
+   top K de um país, ranking de um clube e média por país respondem sem percorrer a tabela. */
+public class ClubRankingTable {
+
+    private int[] ranking;
+    private int[] pontos;
+    private int[] variacao;
+    private int[] pontosAnteriores;
+    private int[] pais;
+    private int[] clube;
+    private int n = 0;
+    private int invalidas = 0;
+
+    private int[] inicioPais;
+    private int[] linhasPais;
+    private int[] inicioClube;
+    private int[] linhasClube;
+    private double[] rankMedio;
+
+    private final DicionarioBytes paises = new DicionarioBytes();
+    private final DicionarioBytes clubes = new DicionarioBytes();
+
+    private ClubRankingTable(int capacidade) {
+        ranking = new int[capacidade];
+        pontos = new int[capacidade];
+        variacao = new int[capacidade];
+        pontosAnteriores = new int[capacidade];
+        pais = new int[capacidade];
+        clube = new int[capacidade];
+    }
+
+    public static ClubRankingTable ler(Path ficheiro) throws IOException {
+        try (FileChannel canal = FileChannel.open(ficheiro, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            if (tamanho > Integer.MAX_VALUE) {
+                throw new IOException("Ficheiro de ranking demasiado grande: " + ficheiro);
+            }
+            ByteBuffer b = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanho);
+            /* ~40 bytes por linha no ficheiro original */
+            ClubRankingTable t = new ClubRankingTable((int) Math.max(16, tamanho / 32));
+            t.lerLinhas(b);
+            t.indexar();
+            return t;
+        }
+    }
+
+    public int tamanho() {
+        return n;
+    }
+
+    public int invalidas() {
+        return invalidas;
+    }
+
+    public int ranking(int i) {
+        return ranking[i];
+    }
+
+    public int pontos(int i) {
+        return pontos[i];
+    }
+
+    public int variacao(int i) {
+        return variacao[i];
+    }
+
+    public int pontosAnteriores(int i) {
+        return pontosAnteriores[i];
+    }
+
+    public int pais(int i) {
+        return pais[i];
+    }
+
+    public int clube(int i) {
+        return clube[i];
+    }
+
+    public int numPaises() {
+        return paises.tamanho();
+    }
+
+    public int numClubes() {
+        return clubes.tamanho();
+    }
+
+    public String nomePais(int id) {
+        return paises.nome(id);
+    }
+
+    public String nomeClube(int id) {
+        return clubes.nome(id);
+    }
+
+    /* id do país / clube, ou -1 */
+    public int idPais(String nome) {
+        return paises.procurar(nome);
+    }
+
+    public int idClube(String nome) {
+        return clubes.procurar(nome);
+    }
+
+    /* As k melhores linhas (menor ranking) do país; menos se o país tiver menos clubes */
+    public int[] topPais(int pais, int k) {
+        int de = inicioPais[pais];
+        return Arrays.copyOfRange(linhasPais, de, de + Math.max(0, Math.min(k, inicioPais[pais + 1] - de)));
+    }
+
+    public int[] topPais(String pais, int k) {
+        int id = idPais(pais);
+        return id == -1 ? new int[0] : topPais(id, k);
+    }
+
+    public int clubesDoPais(int pais) {
+        return inicioPais[pais + 1] - inicioPais[pais];
+    }
+
+    /* Linha do i-ésimo melhor clube do país (i a partir de 0) */
+    public int linhaNoPais(int pais, int i) {
+        return linhasPais[inicioPais[pais] + i];
+    }
+
+    /* Ranking médio dos clubes do país (NaN sem clubes) */
+    public double rankMedio(int pais) {
+        return rankMedio[pais];
+    }
+
+    public double rankMedio(String pais) {
+        int id = idPais(pais);
+        return id == -1 ? Double.NaN : rankMedio[id];
+    }
+
+    /* Linhas com esse nome de clube (pode haver clubes homónimos noutros países), por ranking */
+    public int[] linhasDoClube(int clube) {
+        return Arrays.copyOfRange(linhasClube, inicioClube[clube], inicioClube[clube + 1]);
+    }
+
+    /* Ranking do clube (o melhor, se houver homónimos), ou -1 */
+    public int rankDe(String clube) {
+        int id = idClube(clube);
+        return id == -1 ? -1 : ranking[linhasClube[inicioClube[id]]];
+    }
+
+    /* Ranking do clube desse país, ou -1 */
+    public int rankDe(String clube, String pais) {
+        int c = idClube(clube);
+        int p = idPais(pais);
+        if (c == -1 || p == -1) {
+            return -1;
+        }
+        for (int j = inicioClube[c]; j < inicioClube[c + 1]; j++) {
+            if (this.pais[linhasClube[j]] == p) {
+                return ranking[linhasClube[j]];
+            }
+        }
+        return -1;
+    }
+
+    /* Linhas por ranking (ordenação de longs ranking << 32 | linha) e depois distribuídas por
+       país e por clube com contagens, o que mantém cada lista ordenada por ranking */
+    private void indexar() {
+        long[] chaves = new long[n];
+        for (int i = 0; i < n; i++) {
+            chaves[i] = (long) ranking[i] << 32 | i;
+        }
+        Arrays.sort(chaves);
+
+        inicioPais = new int[numPaises() + 1];
+        linhasPais = distribuir(chaves, pais, inicioPais);
+        inicioClube = new int[numClubes() + 1];
+        linhasClube = distribuir(chaves, clube, inicioClube);
+
+        rankMedio = new double[numPaises()];
+        for (int p = 0; p < rankMedio.length; p++) {
+            long soma = 0;
+            for (int j = inicioPais[p]; j < inicioPais[p + 1]; j++) {
+                soma += ranking[linhasPais[j]];
+            }
+            int c = inicioPais[p + 1] - inicioPais[p];
+            rankMedio[p] = c == 0 ? Double.NaN : (double) soma / c;
+        }
+    }
+
+    private int[] distribuir(long[] ordem, int[] grupo, int[] inicio) {
+        for (int i = 0; i < n; i++) {
+            inicio[grupo[i] + 1]++;
+        }
+        for (int g = 1; g < inicio.length; g++) {
+            inicio[g] += inicio[g - 1];
+        }
+        int[] pos = Arrays.copyOf(inicio, inicio.length - 1);
+        int[] linhas = new int[n];
+        for (long k : ordem) {
+            int i = (int) k;
+            linhas[pos[grupo[i]]++] = i;
+        }
+        return linhas;
+    }
+
+    private void lerLinhas(ByteBuffer b) {
+        int lim = b.limit();
+        int p = 0;
+        /* Cabeçalho: a primeira linha não começa por um número */
+        if (lim > 0 && (b.get(0) < '0' || b.get(0) > '9')) {
+            p = fimLinha(b, 0, lim) + 1;
+        }
+        Cursor c = new Cursor(b, lim);
+        while (p < lim) {
+            c.p = p;
+            if (!linha(c)) {
+                int f = fimLinha(b, p, lim);
+                if (f > p && !(f == p + 1 && b.get(p) == '\r')) {
+                    invalidas++;
+                }
+                c.p = f + 1;
+            }
+            p = c.p;
+        }
+    }
+
+    /* Lê uma linha numa só passagem; false (sem acrescentar nada) se estiver mal formada */
+    private boolean linha(Cursor c) {
+        c.ok = true;
+        c.separador = ',';
+        int rk = c.inteiro();
+        int c0 = c.texto();
+        int c1 = c.fimTexto;
+        int p0 = c.texto();
+        int p1 = c.fimTexto;
+        int pts = c.inteiro();
+        int var = c.inteiro();
+        int ant = c.inteiro();
+        int s0 = c.texto();
+        int s1 = c.fimTexto;
+        if (!c.ok || c.separador != '\n' || s1 - s0 > 1 || c0 == c1 || p0 == p1) {
+            return false;
+        }
+        if (n == ranking.length) {
+            crescer();
+        }
+        ranking[n] = rk;
+        pontos[n] = pts;
+        variacao[n] = var > 0 && s1 > s0 && c.b.get(s0) == '-' ? -var : var;
+        pontosAnteriores[n] = ant;
+        clube[n] = clubes.id(c.b, c0, c1);
+        pais[n] = paises.id(c.b, p0, p1);
+        n++;
+        return true;
+    }
+
+    private static int fimLinha(ByteBuffer b, int p, int lim) {
+        while (p < lim && b.get(p) != '\n') {
+            p++;
+        }
+        return p;
+    }
+
+    /* Campos de uma linha: cada leitura consome o campo e o separador (',' ou fim de linha).
+       Ler depois do fim da linha falha sem avançar, por isso uma linha curta nunca come a seguinte. */
+    private static class Cursor {
+
+        final ByteBuffer b;
+        final int lim;
+        int p;
+        int fimTexto;
+        int separador;
+        boolean ok;
+
+        Cursor(ByteBuffer b, int lim) {
+            this.b = b;
+            this.lim = lim;
+        }
+
+        /* Inteiro com sinal opcional e espaços à volta */
+        int inteiro() {
+            if (separador == '\n') {
+                ok = false;
+                return 0;
+            }
+            int v = 0;
+            int digitos = 0;
+            boolean neg = false;
+            int ch = ' ';
+            while (p < lim && (ch = b.get(p)) == ' ') {
+                p++;
+            }
+            if (ch == '-' || ch == '+') {
+                neg = ch == '-';
+                p++;
+            }
+            while (p < lim) {
+                ch = b.get(p);
+                if (ch < '0' || ch > '9') {
+                    break;
+                }
+                v = v * 10 + (ch - '0');
+                digitos++;
+                p++;
+            }
+            while (p < lim && (ch = b.get(p)) == ' ') {
+                p++;
+            }
+            ok &= digitos > 0 && digitos <= 9;
+            separar();
+            return neg ? -v : v;
+        }
+
+        /* Texto sem os espaços à volta; devolve o início, o fim fica em fimTexto */
+        int texto() {
+            if (separador == '\n') {
+                ok = false;
+                fimTexto = p;
+                return p;
+            }
+            while (p < lim && b.get(p) == ' ') {
+                p++;
+            }
+            int de = p;
+            while (p < lim) {
+                int ch = b.get(p);
+                if (ch == ',' || ch == '\n' || ch == '\r') {
+                    break;
+                }
+                p++;
+            }
+            int ate = p;
+            while (ate > de && b.get(ate - 1) == ' ') {
+                ate--;
+            }
+            fimTexto = ate;
+            separar();
+            return de;
+        }
+
+        private void separar() {
+            if (p < lim && b.get(p) == '\r') {
+                p++;
+            }
+            if (p >= lim) {
+                separador = '\n';
+            }
+            else {
+                separador = b.get(p);
+                ok &= separador == ',' || separador == '\n';
+                p++;
+            }
+        }
+    }
+
+    private void crescer() {
+        int cap = n * 2;
+        ranking = Arrays.copyOf(ranking, cap);
+        pontos = Arrays.copyOf(pontos, cap);
+        variacao = Arrays.copyOf(variacao, cap);
+        pontosAnteriores = Arrays.copyOf(pontosAnteriores, cap);
+        pais = Arrays.copyOf(pais, cap);
+        clube = Arrays.copyOf(clube, cap);
+    }
+
+}
@@ -0,0 +1,119 @@
+package aula07;
+
+import java.nio.ByteBuffer;
+
+/* Leitura e escrita em massa de datas dd-mm-yyyy (uma por linha) diretamente de/para ByteBuffers,
+   como datas empacotadas (DataCompacta). Não aloca nada por data e não escreve na consola:
+   as linhas inválidas ficam a 0 em out e marcadas no bitmap de erros (bit i = linha i). */
+public final class CodecDatas {
+
+    public static final int BYTES_DATA = 11; /* dd-mm-yyyy\n */
+
+    private CodecDatas() {
+    }
+
+    /* Tamanho do bitmap para n linhas */
+    public static long[] bitmap(int linhas) {
+        return new long[(linhas + 63) >>> 6];
+    }
+
+    public static boolean erro(long[] erros, int linha) {
+        return (erros[linha >>> 6] & 1L << linha) != 0;
+    }
+
+    /* Lê até out.length linhas desde a posição de in (que avança); devolve quantas leu */
+    public static int ler(ByteBuffer in, int[] out, long[] erros) {
+        int n = 0;
+        int p = in.position();
+        int lim = in.limit();
+        while (p < lim && n < out.length) {
+            int d = 0;
+            int m = 0;
+            int y = 0;
+            int campo = 0;
+            int digitos = 0;
+            boolean ok = true;
+            while (p < lim) {
+                int c = in.get(p++);
+                if (c == '\n') {
+                    break;
+                }
+                if (c >= '0' && c <= '9') {
+                    int v = c - '0';
+                    if (campo == 0) {
+                        d = d * 10 + v;
+                    }
+                    else if (campo == 1) {
+                        m = m * 10 + v;
+                    }
+                    else {
+                        y = y * 10 + v;
+                    }
+                    digitos++;
+                }
+                else if (c == '-' || c == '/') {
+                    /* dia e mês com no máximo 2 dígitos (também evita que o int dê a volta) */
+                    ok &= digitos > 0 && digitos <= 2;
+                    campo++;
+                    digitos = 0;
+                }
+                else if (c != '\r') {
+                    ok = false;
+                }
+            }
+            ok &= campo == 2 && digitos > 0 && digitos <= 4 && Date.dataValida(d, m, y);
+            if (ok) {
+                out[n] = DataCompacta.empacotar(d, m, y);
+            }
+            else {
+                out[n] = 0;
+                erros[n >>> 6] |= 1L << n;
+            }
+            n++;
+        }
+        in.position(p);
+        return n;
+    }
+
+    /* Escreve datas[de, ate[ como dd-mm-yyyy\n; devolve quantas couberam em out */
+    public static int escrever(int[] datas, int de, int ate, ByteBuffer out) {
+        int k = 0;
+        int p = out.position();
+        for (int i = de; i < ate && out.limit() - p >= BYTES_DATA; i++) {
+            int data = datas[i];
+            int d = DataCompacta.dia(data);
+            int m = DataCompacta.mes(data);
+            int y = DataCompacta.ano(data);
+            out.put(p, (byte) ('0' + d / 10));
+            out.put(p + 1, (byte) ('0' + d % 10));
+            out.put(p + 2, (byte) '-');
+            out.put(p + 3, (byte) ('0' + m / 10));
+            out.put(p + 4, (byte) ('0' + m % 10));
+            out.put(p + 5, (byte) '-');
+            out.put(p + 6, (byte) ('0' + y / 1000 % 10));
+            out.put(p + 7, (byte) ('0' + y / 100 % 10));
+            out.put(p + 8, (byte) ('0' + y / 10 % 10));
+            out.put(p + 9, (byte) ('0' + y % 10));
+            out.put(p + 10, (byte) '\n');
+            p += BYTES_DATA;
+            k++;
+        }
+        out.position(p);
+        return k;
+    }
+
+    /* dd-mm-yyyy em c[0..9] */
+    static void escrever(int d, int m, int y, char[] c) {
+        c[0] = (char) ('0' + d / 10);
+        c[1] = (char) ('0' + d % 10);
+        c[2] = '-';
+        c[3] = (char) ('0' + m / 10);
+        c[4] = (char) ('0' + m % 10);
+        c[5] = '-';
+        c[6] = (char) ('0' + y / 1000);
+        c[7] = (char) ('0' + y / 100 % 10);
+        c[8] = (char) ('0' + y / 10 % 10);
+        c[9] = (char) ('0' + y % 10);
+    }
+
+}
@@ -0,0 +1,101 @@
+package aula07;
+
+import java.util.stream.IntStream;
+
+/* Operações em massa sobre datas guardadas em colunas (dia[], mês[], ano[]): validar,
+   distância em dias a uma data de referência (como o DateND) e contagem por mês.
+   Os ciclos são sem ramos e só com aritmética de int, para o JIT os vetorizar onde
+   consegue; as versões paralelas partem as colunas em blocos pelo ForkJoinPool comum. */
+public final class ColunasDatas {
+
+    private static final int BLOCO = 1 << 16;
+
+    /* Dias de cada mês num ano comum; índices fora de 1..12 dão 0 */
+    private static final int[] DIAS_MES = {0, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31, 0, 0, 0};
+
+    /* Desloca os anos para positivo antes de dividir (válido para anos > -10000) */
+    private static final int ERAS_DESLOCADAS = 25;
+
+    private ColunasDatas() {
+    }
+
+    /* valido[i] = 1 se a data i existe, 0 caso contrário; devolve quantas são válidas */
+    public static int validar(int[] dia, int[] mes, int[] ano, int de, int ate, byte[] valido) {
+        int n = 0;
+        for (int i = de; i < ate; i++) {
+            int v = valida(dia[i], mes[i], ano[i]) ? 1 : 0;
+            valido[i] = (byte) v;
+            n += v;
+        }
+        return n;
+    }
+
+    /* dist[i] = diaEpoca(i) - diaEpoca(referência) */
+    public static void distancia(int[] dia, int[] mes, int[] ano, int de, int ate, Date referencia, int[] dist) {
+        int ref = referencia.diaEpoca();
+        for (int i = de; i < ate; i++) {
+            int m = mes[i];
+            int antesMarco = (m - 3) >>> 31;
+            int y = ano[i] - antesMarco + ERAS_DESLOCADAS * 400;
+            int era = y / 400;
+            int yoe = y - era * 400;
+            int mp = m - 3 + 12 * antesMarco;
+            int doy = (153 * mp + 2) / 5 + dia[i] - 1;
+            int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+            dist[i] = (era - ERAS_DESLOCADAS) * 146097 + doe - 719468 - ref;
+        }
+    }
+
+    /* hist[(ano - anoInicial) * 12 + mês - 1]++ para as datas válidas dentro do histograma
+       (um mês 13 daria o balde de janeiro do ano seguinte, por isso as inválidas ficam de fora) */
+    public static void contarPorMes(int[] dia, int[] mes, int[] ano, int de, int ate, int anoInicial, int[] hist) {
+        for (int i = de; i < ate; i++) {
+            int b = (ano[i] - anoInicial) * 12 + mes[i] - 1;
+            if (valida(dia[i], mes[i], ano[i]) & b >= 0 & b < hist.length) {
+                hist[b]++;
+            }
+        }
+    }
+
+    public static int validarParalelo(int[] dia, int[] mes, int[] ano, byte[] valido) {
+        return blocos(dia.length).map(b -> validar(dia, mes, ano, b * BLOCO, fimBloco(b, dia.length), valido)).sum();
+    }
+
+    public static void distanciaParalelo(int[] dia, int[] mes, int[] ano, Date referencia, int[] dist) {
+        blocos(dia.length).forEach(b -> distancia(dia, mes, ano, b * BLOCO, fimBloco(b, dia.length), referencia, dist));
+    }
+
+    /* Cada bloco conta no seu histograma e no fim somam-se (sem partilhar contadores entre threads) */
+    public static int[] contarPorMesParalelo(int[] dia, int[] mes, int[] ano, int anoInicial, int anos) {
+        return blocos(mes.length)
+                .mapToObj(b -> {
+                    int[] h = new int[anos * 12];
+                    contarPorMes(dia, mes, ano, b * BLOCO, fimBloco(b, mes.length), anoInicial, h);
+                    return h;
+                })
+                .reduce(new int[anos * 12], (a, h) -> {
+                    int[] s = a.clone();
+                    for (int i = 0; i < s.length; i++) {
+                        s[i] += h[i];
+                    }
+                    return s;
+                });
+    }
+
+    private static boolean valida(int d, int m, int y) {
+        /* múltiplo de 100 só é bissexto se também for de 16 (então de 400) */
+        int bissexto = ((y & 3) == 0) & ((y % 100 != 0) | ((y & 15) == 0)) ? 1 : 0;
+        int fev = m == 2 ? 1 : 0;
+        int diasMes = DIAS_MES[m & 15] + (bissexto & fev);
+        return (y >= 0) & (m >= 1) & (m <= 12) & (d >= 1) & (d <= diasMes);
+    }
+
+    private static IntStream blocos(int n) {
+        return IntStream.range(0, (n + BLOCO - 1) / BLOCO).parallel();
+    }
+
+    private static int fimBloco(int b, int n) {
+        return Math.min(n, (b + 1) * BLOCO);
+    }
+
+}
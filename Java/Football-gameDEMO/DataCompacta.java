@@ -0,0 +1,50 @@
+package aula07;
+
+/* Data empacotada num int: ano << 9 | mês << 5 | dia.
+   A ordem dos ints é a ordem das datas, por isso comparar, ordenar e fazer hash são operações de int.
+   Isto só vale quando os campos cabem nos seus bits (cabe()); com um dia ou mês fora disso os bits
+   sobrepõem-se e datas diferentes podem dar o mesmo int. */
+public final class DataCompacta {
+
+    private DataCompacta() {
+    }
+
+    public static int empacotar(int day, int month, int year) {
+        return year << 9 | month << 5 | day;
+    }
+
+    /* Dia em 0..31, mês em 0..15 e ano em 0..2^22 - 1: o int guarda os três sem perder nada */
+    public static boolean cabe(int day, int month, int year) {
+        return (day & ~31) == 0 && (month & ~15) == 0 && (year & ~((1 << 22) - 1)) == 0;
+    }
+
+    /* Date.SEM_CHAVE se os campos da data não cabem */
+    public static int empacotar(Date d) {
+        return d.chave();
+    }
+
+    public static int dia(int data) {
+        return data & 31;
+    }
+
+    public static int mes(int data) {
+        return data >> 5 & 15;
+    }
+
+    public static int ano(int data) {
+        return data >> 9;
+    }
+
+    public static int diaEpoca(int data) {
+        return Date.diaEpoca(dia(data), mes(data), ano(data));
+    }
+
+    public static int deDiaEpoca(int dias) {
+        return Date.deDiaEpoca(dias).chave();
+    }
+
+    public static DateYMD paraDate(int data) {
+        return new DateYMD(dia(data), mes(data), ano(data));
+    }
+
+}
@@ -0,0 +1,115 @@
+package aula07;
+
+import java.util.Arrays;
+
+/* Coleção ordenada de datas empacotadas (DataCompacta) num int[]: 4 bytes por data,
+   pesquisas por binarySearch. As inserções vão para o fim e a ordenação é feita
+   na próxima consulta. */
+public class DatasOrdenadas {
+
+    private int[] datas;
+    private int n = 0;
+    private boolean ordenado = true;
+
+    public DatasOrdenadas() {
+        this(16);
+    }
+
+    public DatasOrdenadas(int capacidade) {
+        datas = new int[Math.max(1, capacidade)];
+    }
+
+    public int tamanho() {
+        return n;
+    }
+
+    public void add(int data) {
+        if (n == datas.length) {
+            datas = Arrays.copyOf(datas, n * 2);
+        }
+        if (n > 0 && data < datas[n - 1]) {
+            ordenado = false;
+        }
+        datas[n++] = data;
+    }
+
+    public void add(Date d) {
+        int k = d.chave();
+        if (k == Date.SEM_CHAVE) {
+            throw new IllegalArgumentException("Data sem representação compacta: " + d);
+        }
+        add(k);
+    }
+
+    public void addTodos(int[] novas, int de, int ate) {
+        for (int i = de; i < ate; i++) {
+            add(novas[i]);
+        }
+    }
+
+    /* i-ésima data por ordem */
+    public int get(int i) {
+        ordenar();
+        if (i < 0 || i >= n) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        return datas[i];
+    }
+
+    public boolean contem(int data) {
+        ordenar();
+        return Arrays.binarySearch(datas, 0, n, data) >= 0;
+    }
+
+    /* Index da primeira data >= data (n se não houver) */
+    public int primeiraDesde(int data) {
+        ordenar();
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (datas[m] < data) {
+                lo = m + 1;
+            }
+            else {
+                hi = m;
+            }
+        }
+        return lo;
+    }
+
+    /* Quantas datas em [de, ate] */
+    public int contarEntre(int de, int ate) {
+        if (ate < de) {
+            return 0;
+        }
+        return primeiraDesde(ate + 1) - primeiraDesde(de);
+    }
+
+    public void removerRepetidas() {
+        ordenar();
+        if (n == 0) {
+            return;
+        }
+        int k = 1;
+        for (int i = 1; i < n; i++) {
+            if (datas[i] != datas[k - 1]) {
+                datas[k++] = datas[i];
+            }
+        }
+        n = k;
+    }
+
+    public int[] paraArray() {
+        ordenar();
+        return Arrays.copyOf(datas, n);
+    }
+
+    private void ordenar() {
+        if (!ordenado) {
+            Arrays.sort(datas, 0, n);
+            ordenado = true;
+        }
+    }
+
+}
@@ -1,7 +1,5 @@
 package aula07;
 
-import java.util.Objects;
-
 public abstract class Date implements Comparable<Date> {
 
     
@@ -12,6 +10,20 @@ public abstract class Date implements Comparable<Date> {
 
 
     protected abstract int getDay();
+
+
+    /* chave() de uma data cujos campos não cabem num DataCompacta */
+    public static final int SEM_CHAVE = -1;
+
+    /* Data empacotada (DataCompacta), ou SEM_CHAVE se os campos não cabem; as subclasses leem os
+       campos diretamente. As chaves válidas são >= 0 e têm a ordem das datas, por isso equals,
+       hashCode e compareTo só usam a chave e vão aos campos apenas para datas sem chave */
+    protected int chave() {
+        int d = getDay();
+        int m = getMonth();
+        int y = getYear();
+        return DataCompacta.cabe(d, m, y) ? DataCompacta.empacotar(d, m, y) : SEM_CHAVE;
+    }
     
 
     public static boolean validMonth(int month) {
@@ -51,6 +63,11 @@ public abstract class Date implements Comparable<Date> {
         return (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
     }
 
+    /* Como valid, mas sem escrever nada */
+    public static boolean dataValida(int day, int month, int year) {
+        return year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= monthDays(month, year);
+    }
+
     public static boolean valid(int day, int month, int year) {
         if (year < 0) {
             System.out.println("Ano impossível!");
@@ -67,89 +84,59 @@ public abstract class Date implements Comparable<Date> {
         return true;
     }
 
-    public void increment(int n, int day, int month, int year) {
-        day += n;
+    /* Dias desde 01/01/1970 no calendário gregoriano, em O(1) (algoritmo days_from_civil) */
+    public static int diaEpoca(int day, int month, int year) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
 
-        if (day > monthDays(month, year)) {
+    /* Inverso de diaEpoca */
+    public static DateYMD deDiaEpoca(int dias) {
+        int z = dias + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int doe = z - era * 146097;
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        return new DateYMD(day, month, year);
+    }
 
-            do {
-                day -= monthDays(month, year);
-                month += 1;
+    public int diaEpoca() {
+        return diaEpoca(getDay(), getMonth(), getYear());
+    }
 
-                if (month > 12) {
-                    month = 1;
-                    year += 1;
-                }
-            }while(day > monthDays(month, year));
-        }
+    /* Nova data n dias depois (n pode ser negativo) */
+    public DateYMD somarDias(int n) {
+        return deDiaEpoca(diaEpoca() + n);
+    }
+
+    public DateYMD subtrairDias(int n) {
+        return deDiaEpoca(diaEpoca() - n);
     }
 
-    public void decrement(int n, int day, int month, int year) {
-        day -= n;
+    /* Dias desta data menos os da outra */
+    public int diferenca(Date o) {
+        return diaEpoca() - o.diaEpoca();
+    }
 
-        if (day < 1) {
-            do {
-                month -= 1;
-                day += monthDays(month, year);
+    public DateYMD increment(int n, int day, int month, int year) {
+        return deDiaEpoca(diaEpoca(day, month, year) + n);
+    }
 
-                if (month < 1) {
-                    year -= 1;
-                    month = 12;
-                }
-            }while(day < 1);
-        }
+    public DateYMD decrement(int n, int day, int month, int year) {
+        return deDiaEpoca(diaEpoca(day, month, year) - n);
     }
 
+    /* Número de dias entre a data e a de referência */
     public static int numDays(int day, int month, int year, DateYMD date) {
-        int monthRef = date.getMonth();
-        int yearRef = date.getYear();
-        
-        int numDays = 0;
-        int diffY = year - yearRef;
-
-        if (diffY < 0 ) {
-            for (int i = 0; year+1 + i <yearRef; i++) {
-                if (leapYear(year)) {
-                    numDays += 366;
-                }
-                else {
-                    numDays += 365;
-                }
-            }
-            for (int i = month+1; i >= 12; i++) {
-                numDays += monthDays(month, year);
-            }
-            numDays += (day + 1);
-        }
-        if (diffY > 0) {
-            for (int i = 0; year-1 - i >= yearRef; i++) {
-                if (leapYear(year)) {
-                    numDays += 366;
-                }
-                else {
-                    numDays += 365;
-                }
-            }
-            for (int i = month-1; i > 0; i--) {
-                numDays += monthDays(month, year);
-            }
-            numDays += (day + 1);
-        }
-        
-        
-        if (diffY == 0) {
-            for (int i = 0; month - i > monthRef; i++) {
-                System.out.print(month - i);
-                numDays += monthDays(month - i, yearRef);
-            }
-            if (day == 1) {
-                return numDays;
-            }
-            else {
-                numDays += (day - 1);
-            }
-        }
-        return numDays;
+        return Math.abs(diaEpoca(day, month, year) - date.diaEpoca());
     }
 
     @Override
@@ -157,32 +144,43 @@ public abstract class Date implements Comparable<Date> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Date date = (Date) o;
-        return this.getDay() == date.getDay() && this.getMonth() == date.getMonth() && this.getYear() == date.getYear();
+        int a = chave();
+        int b = date.chave();
+        if ((a | b) >= 0) {
+            return a == b;
+        }
+        return compararCampos(date) == 0;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.getDay(), this.getMonth(), this.getYear());
+        int k = chave();
+        if (k >= 0) {
+            return k;
+        }
+        return (getYear() * 31 + getMonth()) * 31 + getDay();
     }
 
     @Override
     public int compareTo(Date o) {
-        if (this.getYear() > o.getYear())
-            return 1;
-        if (this.getYear() < o.getYear())
-            return -1;
-
-        if (this.getMonth() > o.getMonth())
-            return 1;
-        if (this.getMonth() < o.getMonth())
-            return -1;
-
-        if (this.getDay() > o.getDay())
-            return 1;
-        if (this.getDay() < o.getDay())
-            return -1;
-
-        return 0;
+        int a = chave();
+        int b = o.chave();
+        if ((a | b) >= 0) {
+            return Integer.compare(a, b);
+        }
+        return compararCampos(o);
+    }
+
+    /* Ano, mês e dia por esta ordem; só para datas sem chave */
+    private int compararCampos(Date o) {
+        int c = Integer.compare(this.getYear(), o.getYear());
+        if (c == 0) {
+            c = Integer.compare(this.getMonth(), o.getMonth());
+        }
+        if (c == 0) {
+            c = Integer.compare(this.getDay(), o.getDay());
+        }
+        return c;
     }
 
 
@@ -34,6 +34,11 @@ public class DateND extends Date {
     }
 
 
+    @Override
+    protected int chave() {
+        return DataCompacta.cabe(day, month, year) ? DataCompacta.empacotar(day, month, year) : SEM_CHAVE;
+    }
+
     @Override
     public String toString() {
         return String.format("Distância em dias a 01/01/2000: %d dias", numDays(day, month, year, date));
@@ -33,9 +33,19 @@ public class DateYMD extends Date {
         day = d;
     }
 
+    @Override
+    protected int chave() {
+        return DataCompacta.cabe(day, month, year) ? DataCompacta.empacotar(day, month, year) : SEM_CHAVE;
+    }
+
     @Override
     public String toString() {
-        return String.format("%02d-%02d-%04d", day, month, year);
+        if (day < 0 || day > 99 || month < 0 || month > 99 || year < 0 || year > 9999) {
+            return String.format("%02d-%02d-%04d", day, month, year);
+        }
+        char[] c = new char[10];
+        CodecDatas.escrever(day, month, year, c);
+        return new String(c);
     }
 
 }
@@ -0,0 +1,8 @@
+package aula07;
+
+/* Fonte de decisões do MotorJogo (IA, jogadas gravadas, testes...) */
+public interface Decisor {
+
+    void decidir(MotorJogo motor, Robo comBola, Jogada jogada);
+
+}
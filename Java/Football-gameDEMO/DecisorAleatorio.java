@@ -0,0 +1,41 @@
+package aula07;
+
+import java.util.SplittableRandom;
+
+/* Decisor simples: conduz para a baliza, passa a um colega ou remata quando está perto */
+public class DecisorAleatorio implements Decisor {
+
+    private static final int DISTANCIA_REMATE = 20;
+
+    private final SplittableRandom rnd;
+
+    public DecisorAleatorio(long seed) {
+        rnd = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void decidir(MotorJogo motor, Robo comBola, Jogada jogada) {
+        int alvoX = motor.balizaAlvoX(motor.getEquipaComBola());
+        int dx = alvoX - comBola.getX();
+
+        if (Math.abs(dx) <= DISTANCIA_REMATE && rnd.nextInt(100) < 1) {
+            jogada.set(Jogada.REMATE, alvoX, rnd.nextInt(MotorJogo.BALIZA_Y_MIN, MotorJogo.BALIZA_Y_MAX + 1));
+            return;
+        }
+
+        Robo[] colegas = motor.getJogadores(motor.getEquipaComBola());
+        if (colegas.length > 1 && rnd.nextInt(100) < 25) {
+            Robo r = colegas[rnd.nextInt(colegas.length)];
+            if (r != comBola) {
+                jogada.set(Jogada.PASSE, r.getX(), r.getY());
+                return;
+            }
+        }
+
+        int passo = rnd.nextInt(1, 5);
+        int x = comBola.getX() + Integer.signum(dx) * passo;
+        int y = comBola.getY() + rnd.nextInt(-2, 3);
+        jogada.set(Jogada.CONDUZIR, x, y);
+    }
+
+}
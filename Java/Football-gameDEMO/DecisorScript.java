@@ -0,0 +1,35 @@
+package aula07;
+
+/* Decisor alimentado de fora (script, jogadas gravadas): devolve a jogada pendente;
+   sem jogada pendente usa o decisor automático, se houver, ou MANTER */
+public class DecisorScript implements Decisor {
+
+    private Decisor automatico;
+    private boolean pendente = false;
+    private int tipo = Jogada.MANTER;
+    private int x;
+    private int y;
+
+    public void proxima(int tipo, int x, int y) {
+        this.tipo = tipo;
+        this.x = x;
+        this.y = y;
+        pendente = true;
+    }
+
+    public void setAutomatico(Decisor automatico) {
+        this.automatico = automatico;
+    }
+
+    @Override
+    public void decidir(MotorJogo motor, Robo comBola, Jogada jogada) {
+        if (pendente) {
+            jogada.set(tipo, x, y);
+            pendente = false;
+        }
+        else if (automatico != null) {
+            automatico.decidir(motor, comBola, jogada);
+        }
+    }
+
+}
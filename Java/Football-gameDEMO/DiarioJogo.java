@@ -0,0 +1,238 @@
+package aula07;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/* Diário binário só de acrescento com as ações de um Jogo.
+   Cada evento ocupa 8 bytes: tipo, slot, minuto, aux (tick no minuto ou valor do evento)
+   e as coordenadas (x, y) em dois shorts como diferença para as do evento anterior.
+   Pode viver num ficheiro mapeado em memória ou só em memória (simulações em massa).
+   Tipo, slot, minuto e aux têm um byte cada (0 a 255) e cada diferença de coordenadas tem de
+   caber num short: um evento fora desses limites é recusado com IllegalArgumentException em
+   vez de ser truncado.
+   Slots como no MotorJogo: 0 é a bola, depois os jogadores da equipa1 e da equipa2.
+   Num PASSE o slot é o jogador que recebe a bola em (x, y). */
+public class DiarioJogo implements AutoCloseable {
+
+    public static final int PASSE = 1;
+    public static final int REMATE = 2;
+    public static final int MOVIMENTO = 3;
+    public static final int SUBSTITUICAO = 4;
+    public static final int BOLA = 5;
+    public static final int TEMPO = 6;
+    public static final int GOLO = 7;
+    public static final int POSSE = 8;
+    public static final int CONDUCAO = 9;
+
+    public static final int BYTES_EVENTO = 8;
+
+    private static final int CABECALHO = 8;
+    private static final int MAGIA = 0x4A4F474F; /* "JOGO" */
+
+    private final FileChannel canal;
+    private ByteBuffer buf;
+    private int eventos = 0;
+    private int ultimoX = 0;
+    private int ultimoY = 0;
+
+    /* Diário em memória */
+    public DiarioJogo(int capacidadeEventos) {
+        canal = null;
+        buf = ByteBuffer.allocate(CABECALHO + capacidadeEventos * BYTES_EVENTO).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /* Diário novo num ficheiro mapeado em memória (cresce quando enche) */
+    public DiarioJogo(Path ficheiro, int capacidadeEventos) throws IOException {
+        canal = FileChannel.open(ficheiro, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buf = mapear(CABECALHO + (long) capacidadeEventos * BYTES_EVENTO);
+    }
+
+    private DiarioJogo(ByteBuffer buf, int eventos) {
+        canal = null;
+        this.buf = buf;
+        this.eventos = eventos;
+    }
+
+    /* Abre para leitura um diário gravado com sincronizar() ou close() */
+    public static DiarioJogo abrir(Path ficheiro) throws IOException {
+        try (FileChannel c = FileChannel.open(ficheiro, StandardOpenOption.READ)) {
+            long tamanho = c.size();
+            if (tamanho < CABECALHO || tamanho > Integer.MAX_VALUE) {
+                throw new IOException("Ficheiro não é um diário de jogo: " + ficheiro);
+            }
+            ByteBuffer b = c.map(FileChannel.MapMode.READ_ONLY, 0, tamanho).order(ByteOrder.LITTLE_ENDIAN);
+            if (b.getInt(0) != MAGIA) {
+                throw new IOException("Ficheiro não é um diário de jogo: " + ficheiro);
+            }
+            /* O número de eventos do cabeçalho tem de caber no ficheiro */
+            int eventos = b.getInt(4);
+            if (eventos < 0 || eventos > (tamanho - CABECALHO) / BYTES_EVENTO) {
+                throw new IOException(String.format("Diário truncado ou corrompido: %s diz ter %d eventos mas só tem espaço para %d",
+                        ficheiro, eventos, (tamanho - CABECALHO) / BYTES_EVENTO));
+            }
+            return new DiarioJogo(b, eventos);
+        }
+    }
+
+    public int tamanho() {
+        return eventos;
+    }
+
+    public void registar(int tipo, int slot, int minuto, int aux, int x, int y) {
+        int p = CABECALHO + eventos * BYTES_EVENTO;
+        if (p + BYTES_EVENTO > buf.capacity()) {
+            crescer();
+        }
+        if (((tipo | slot | minuto | aux) & ~0xFF) != 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Evento fora dos limites do diário (tipo %d, slot %d, minuto %d, aux %d; máximo 255)",
+                    tipo, slot, minuto, aux));
+        }
+        int ddx = x - ultimoX;
+        int ddy = y - ultimoY;
+        if (ddx != (short) ddx || ddy != (short) ddy) {
+            throw new IllegalArgumentException(String.format(
+                    "Salto de coordenadas demasiado grande para o diário: (%d, %d) -> (%d, %d)",
+                    ultimoX, ultimoY, x, y));
+        }
+        long dx = ddx & 0xFFFF;
+        long dy = ddy & 0xFFFF;
+        long e = (tipo & 0xFF) | (slot & 0xFF) << 8 | (minuto & 0xFF) << 16 | (long) (aux & 0xFF) << 24
+                | dx << 32 | dy << 48;
+        buf.putLong(p, e);
+        ultimoX = x;
+        ultimoY = y;
+        eventos++;
+    }
+
+    /* Evento sem coordenadas: repete as últimas */
+    public void registar(int tipo, int slot, int minuto, int aux) {
+        registar(tipo, slot, minuto, aux, ultimoX, ultimoY);
+    }
+
+    public Cursor cursor() {
+        return new Cursor(0, 0, 0);
+    }
+
+    /* Leitura a partir do evento i, sabendo as coordenadas do evento i - 1 */
+    public Cursor cursor(int i, int baseX, int baseY) {
+        return new Cursor(i, baseX, baseY);
+    }
+
+    public int getUltimoX() {
+        return ultimoX;
+    }
+
+    public int getUltimoY() {
+        return ultimoY;
+    }
+
+    /* Escreve o cabeçalho e, se for um ficheiro, força a escrita em disco */
+    public void sincronizar() {
+        buf.putInt(0, MAGIA);
+        buf.putInt(4, eventos);
+        if (buf instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) buf).force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (canal != null) {
+            sincronizar();
+            canal.close();
+        }
+    }
+
+    private void crescer() {
+        long novo = Math.max(2L * buf.capacity(), CABECALHO + 64L * BYTES_EVENTO);
+        if (novo > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Diário cheio!");
+        }
+        if (canal != null) {
+            try {
+                buf = mapear(novo);
+            } catch (IOException e) {
+                throw new IllegalStateException("Não foi possível aumentar o diário", e);
+            }
+        }
+        else {
+            ByteBuffer b = ByteBuffer.allocate((int) novo).order(ByteOrder.LITTLE_ENDIAN);
+            b.put(buf.duplicate().clear());
+            buf = b;
+        }
+    }
+
+    private ByteBuffer mapear(long tamanho) throws IOException {
+        return canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /* Percorre os eventos reconstruindo as coordenadas absolutas */
+    public class Cursor {
+
+        private int i;
+        private int tipo;
+        private int slot;
+        private int minuto;
+        private int aux;
+        private int x;
+        private int y;
+
+        private Cursor(int i, int baseX, int baseY) {
+            this.i = i;
+            x = baseX;
+            y = baseY;
+        }
+
+        public boolean proximo() {
+            if (i >= eventos) {
+                return false;
+            }
+            long e = buf.getLong(CABECALHO + i * BYTES_EVENTO);
+            tipo = (int) (e & 0xFF);
+            slot = (int) (e >>> 8 & 0xFF);
+            minuto = (int) (e >>> 16 & 0xFF);
+            aux = (int) (e >>> 24 & 0xFF);
+            x += (short) (e >>> 32);
+            y += (short) (e >>> 48);
+            i++;
+            return true;
+        }
+
+        /* Index do próximo evento a ler */
+        public int posicao() {
+            return i;
+        }
+
+        public int getTipo() {
+            return tipo;
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+
+        public int getMinuto() {
+            return minuto;
+        }
+
+        public int getAux() {
+            return aux;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+package aula07;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/* Dicionário de valores de texto lidos de um ByteBuffer: cada valor diferente recebe um id
+   denso (0, 1, 2...) pela ordem em que aparece. A procura é feita pelos bytes (endereçamento
+   aberto), por isso só se cria a String na primeira vez que um valor aparece. Os bytes são
+   lidos, misturados no hash e comparados 8 de cada vez (cada valor guardado como long[]). */
+public class DicionarioBytes {
+
+    private int[] tabela = new int[64];
+    private int[] hashes = new int[32];
+    private int[] tamanhos = new int[32];
+    private long[][] palavras = new long[32][];
+    private String[] nomes = new String[32];
+    private int n = 0;
+
+    public DicionarioBytes() {
+        Arrays.fill(tabela, -1);
+    }
+
+    public int tamanho() {
+        return n;
+    }
+
+    public String nome(int id) {
+        return nomes[id];
+    }
+
+    /* id do valor buf[de, ate[, acrescentando-o se for novo */
+    public int id(ByteBuffer buf, int de, int ate) {
+        int h = hash(buf, de, ate);
+        int mascara = tabela.length - 1;
+        for (int i = h & mascara; ; i = (i + 1) & mascara) {
+            int e = tabela[i];
+            if (e == -1) {
+                return novo(i, h, buf, de, ate);
+            }
+            if (hashes[e] == h && igual(e, buf, de, ate)) {
+                return e;
+            }
+        }
+    }
+
+    /* id do valor, ou -1 se nunca apareceu */
+    public int procurar(String nome) {
+        byte[] b = nome.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.wrap(b);
+        int h = hash(buf, 0, b.length);
+        int mascara = tabela.length - 1;
+        for (int i = h & mascara; ; i = (i + 1) & mascara) {
+            int e = tabela[i];
+            if (e == -1) {
+                return -1;
+            }
+            if (hashes[e] == h && igual(e, buf, 0, b.length)) {
+                return e;
+            }
+        }
+    }
+
+    private int novo(int slot, int h, ByteBuffer buf, int de, int ate) {
+        if (n == nomes.length) {
+            hashes = Arrays.copyOf(hashes, n * 2);
+            tamanhos = Arrays.copyOf(tamanhos, n * 2);
+            palavras = Arrays.copyOf(palavras, n * 2);
+            nomes = Arrays.copyOf(nomes, n * 2);
+        }
+        long[] w = new long[(ate - de + 7) >>> 3];
+        for (int k = 0; k < w.length; k++) {
+            w[k] = palavra(buf, de + 8 * k, ate);
+        }
+        byte[] b = new byte[ate - de];
+        buf.get(de, b);
+        int id = n++;
+        hashes[id] = h;
+        tamanhos[id] = b.length;
+        palavras[id] = w;
+        nomes[id] = new String(b, StandardCharsets.UTF_8);
+        tabela[slot] = id;
+        if (n * 2 > tabela.length) {
+            tabela = new int[tabela.length * 2];
+            Arrays.fill(tabela, -1);
+            int mascara = tabela.length - 1;
+            for (int e = 0; e < n; e++) {
+                int i = hashes[e] & mascara;
+                while (tabela[i] != -1) {
+                    i = (i + 1) & mascara;
+                }
+                tabela[i] = e;
+            }
+        }
+        return id;
+    }
+
+    private static int hash(ByteBuffer buf, int de, int ate) {
+        long h = ate - de;
+        for (int k = de; k < ate; k += 8) {
+            h = (h ^ palavra(buf, k, ate)) * 0x9E3779B97F4A7C15L;
+            h ^= h >>> 29;
+        }
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private boolean igual(int e, ByteBuffer buf, int de, int ate) {
+        if (tamanhos[e] != ate - de) {
+            return false;
+        }
+        long[] w = palavras[e];
+        for (int k = 0; k < w.length; k++) {
+            if (w[k] != palavra(buf, de + 8 * k, ate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* Os 8 bytes desde i (menos no fim, a 0 à direita), sempre pela mesma ordem
+       qualquer que seja a ordem do buffer */
+    private static long palavra(ByteBuffer buf, int i, int ate) {
+        if (ate - i >= 8) {
+            long v = buf.getLong(i);
+            return buf.order() == ByteOrder.BIG_ENDIAN ? v : Long.reverseBytes(v);
+        }
+        long v = 0;
+        for (int k = 0; k < 8; k++) {
+            v = v << 8 | (i + k < ate ? buf.get(i + k) & 0xFF : 0);
+        }
+        return v;
+    }
+
+}
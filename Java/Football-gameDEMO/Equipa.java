@@ -8,7 +8,7 @@ public class Equipa {
     private String nomeResponsavel;
     private int totalgolosM;
     private int totalgolosS;
-    private ArrayList<Robo> jogadores = new ArrayList<>();
+    private Plantel jogadores;
 
     public Equipa (String nome, String nr, int totgm, int totgs, ArrayList <Robo> jogadores) {
 
@@ -16,7 +16,7 @@ public class Equipa {
         nomeResponsavel = nr;
         totalgolosM = totgm;
         totalgolosS = totgs;
-        this.jogadores = jogadores; 
+        this.jogadores = new Plantel(jogadores);
 
     }
 
@@ -33,6 +33,10 @@ public class Equipa {
         return totalgolosM;
     }
     public ArrayList<Robo> getjogadores() {
+        return this.jogadores.lista();
+    }
+
+    public Plantel getPlantel() {
         return this.jogadores;
     }
 
@@ -46,20 +50,28 @@ public class Equipa {
     }
 
 
-    public void addRobo(Robo jogador) {
-        this.jogadores.add(jogador);
+    public boolean addRobo(Robo jogador) {
+        return this.jogadores.add(jogador);
     }
 
-    public void removeRobo(Robo jogador) {
-        this.jogadores.remove(jogador);
+    public boolean removeRobo(Robo jogador) {
+        return this.jogadores.remove(jogador);
     }
 
-    protected Robo ChoosePlayear(String id) {
-        for(Robo r : jogadores) {
-            if (r.getId().equals(id)) {
-                return r;
-            }
+    public boolean contemJogador(String id) {
+        return jogadores.contem(id);
+    }
+
+    /* Cópia independente (jogadores incluídos) para simular sem mexer na equipa original */
+    public Equipa copia() {
+        ArrayList<Robo> copias = new ArrayList<>(jogadores.size());
+        for (Robo r : jogadores) {
+            copias.add(r.copia());
         }
-        return null;
+        return new Equipa(nome, nomeResponsavel, totalgolosM, totalgolosS, copias);
+    }
+
+    protected Robo ChoosePlayear(String id) {
+        return jogadores.get(id);
     }
 }
@@ -0,0 +1,19 @@
+package aula07;
+
+/* Fotografia do estado de um MotorJogo (keyframe do ReplayJogo) */
+class EstadoJogo {
+
+    final Posicoes pos;
+    final int[] golosJogador;
+    int golos1;
+    int golos2;
+    int comBola;
+    int tempoDecorrido;
+    int tick;
+
+    EstadoJogo(int slots) {
+        pos = new Posicoes(slots);
+        golosJogador = new int[slots];
+    }
+
+}
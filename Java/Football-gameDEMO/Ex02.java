@@ -46,14 +46,14 @@ public class Ex02 {
                     int dn;
                     System.out.print("Quantos dias queres incrementar: ");
                     dn = sc.nextInt();
-                    date.increment(dn, date.getDay(), date.getMonth(), date.getYear());
+                    date = date.increment(dn, date.getDay(), date.getMonth(), date.getYear());
                     System.out.println("Nova data: " + date.toString());
                     break;
 
                 case "4":
                     System.out.print("Quantos dias queres decrementar: ");
                     dn = sc.nextInt();
-                    date.decrement(dn, date.getDay(), date.getMonth(), date.getYear());
+                    date = date.decrement(dn, date.getDay(), date.getMonth(), date.getYear());
                     System.out.println("Nova data: " + date.toString());
                     break;
 
@@ -1,5 +1,7 @@
 package aula07;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Scanner;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -9,35 +11,43 @@ import java.util.List;
 
 public class Ex03 {
 
-    private static ArrayList <Robo> lJogadores = new ArrayList<>();
+    private static Plantel lJogadores = new Plantel();
     private static String[] positions = {"GR", "DF", "MD", "AV"};
     private static List<String> positionsL = Arrays.asList(positions);
     private static ArrayList <Equipa> lEquipas = new ArrayList<>();
+    private static ResolvedorRemates remates = new ResolvedorRemates(System.nanoTime());
     public static void main(String[] args) {
         
         
+        if (args.length > 0) {
+            /* Modo script: Ex03 <ficheiro de comandos | -> */
+            try {
+                ScriptJogo.correr(args[0]);
+            } catch (java.io.IOException e) {
+                System.out.println("Erro ao ler o script: " + e.getMessage());
+            }
+            return;
+        }
+
         System.out.println("===== Futebol de Robos =====");
         
-        
+        Scanner sc = new Scanner(System.in);
         while (true) {
-            Scanner sc = new Scanner(System.in);
             String op;
             
-            System.out.print("1 - Criar equipa\n2 - Adicionar jogador a equipa\n3 - Remover jogador de equipa\n4 - Listar equipas\n5 - Listar jogadores\n6 - Jogo\n0 - Sair\n");
+            System.out.print("1 - Criar equipa\n2 - Adicionar jogador a equipa\n3 - Remover jogador de equipa\n4 - Listar equipas\n5 - Listar jogadores\n6 - Jogo\n7 - Simular temporada\n0 - Sair\n");
             System.out.print("Opção: ");
             op = sc.nextLine();
             switch (op) {
                 case "1":
-                    ArrayList <Robo> jogadores = new ArrayList<>();
                     System.out.print("Nome da equipa: ");
                     String nome = sc.nextLine();
 
                     System.out.print("Nome do responsável: ");
                     String nomeR = sc.nextLine();
                     
-                    Equipa equipa = new Equipa(nome, nomeR, 0, 0, jogadores);
+                    Equipa equipa = criarEquipa(nome, nomeR);
                     System.out.printf("Equipa %s adicionada com sucesso!\n", equipa.getNome());
-                    lEquipas.add(equipa);
                     break;
                     
                 case "2":
@@ -53,6 +63,10 @@ public class Ex03 {
 
                     System.out.print("Id do robo: ");
                     String id = sc.next();
+                    if (lJogadores.contem(id)) {
+                        System.out.println("Já existe um robo com esse id!");
+                        break;
+                    }
                     
                     String posit;
                     do {
@@ -65,62 +79,16 @@ public class Ex03 {
 
                     int x = 0;
                     int y = 0;
-                    switch (posit) {
-                        case "GR":
-                            do {
-                                System.out.print("Posição ox: ");
-                                x = sc.nextInt();
-
-                                System.out.print("Posição oy: ");
-                                y = sc.nextInt();
-
-                            }while(x < 0 || x > 5 || y < 0 || 14 > y || y > 32); 
-                            break;
-
-                        case "DF":
-                            do {
-                                System.out.print("Posição ox: ");
-                                x = sc.nextInt();
-
-                                System.out.print("Posição oy: ");
-                                y = sc.nextInt();
-
-                            }while(x < 0 || x > 45 || 14 > y || y > 45); 
-                            break;
-
-                        case "MD":
-                            do {
-                                System.out.print("Posição ox: ");
-                                x = sc.nextInt();
-
-                                System.out.print("Posição oy: ");
-                                y = sc.nextInt();
-
-                            }while(x < 0 || x > 45 || y < 0 || y > 45); 
-                            break;
-
-                        case "AV":
-                            do {
-                                System.out.print("Posição ox: ");
-                                x = sc.nextInt();
-
-                                System.out.print("Posição oy: ");
-                                y = sc.nextInt();
+                    do {
+                        System.out.print("Posição ox: ");
+                        x = sc.nextInt();
 
-                            }while(x < 0 || x > 45 || y < 0 || y > 45); 
-                            break;
+                        System.out.print("Posição oy: ");
+                        y = sc.nextInt();
 
-                        default:
-                            if (!positionsL.contains(posit.toUpperCase())) {
-                                System.out.print("Posição impossívle!");
-                            }
-                            break;
-                    }
+                    }while(!coordenadasValidas(posit, x, y));
 
-                    Robo jogador = new Robo(id, posit, 0, x, y, 0);
-
-                    lEquipas.get(eq).addRobo(jogador);
-                    lJogadores.add(jogador);
+                    Robo jogador = adicionarJogador(eq, id, posit, x, y);
                     System.out.printf("Robo com id:%s adicionado com sucesso!\n", jogador.getId());
                     break;
                 
@@ -147,9 +115,7 @@ public class Ex03 {
                         }
                     }while(ind > equipaSelect.getjogadores().size() || ind < 0);
 
-                    jogador = equipaSelect.getjogadores().get(ind);
-
-                    equipaSelect.removeRobo(jogador);
+                    jogador = removerJogador(eq, ind);
                     System.out.printf("Robo com id:%s removido com sucesso!\n", jogador.getId());
                     break;
 
@@ -222,6 +188,9 @@ public class Ex03 {
                     inGameXY(eq2);
 
                     Jogo jogo = new Jogo(90, t, bola, lEquipas.get(eq1), lEquipas.get(eq2));
+                    Path ficheiroDiario = Path.of(String.format("jogo_%d.diario", System.currentTimeMillis()));
+                    DiarioJogo diario = novoDiario(ficheiroDiario);
+                    jogo.setDiario(diario);
                     
                     int eqS;
                     do {
@@ -289,6 +258,15 @@ public class Ex03 {
                                     bola.setY(y);
 
                                     bola.move(x, y);
+                                    /* No diário o slot do PASSE é o de quem recebe (como no MotorJogo);
+                                       sem ninguém nesse sítio a bola só mudou de posição */
+                                    int recetor = slotEm(jogo, x, y);
+                                    if (recetor != -1) {
+                                        jogo.registar(DiarioJogo.PASSE, recetor, 0, x, y);
+                                    }
+                                    else {
+                                        jogo.registar(DiarioJogo.BOLA, 0, 0, x, y);
+                                    }
                                 }
                                 else {
                                     System.out.print("Jogador não tem a bola!");
@@ -306,6 +284,7 @@ public class Ex03 {
                                 jogadorE = lEquipas.get(eq1).ChoosePlayear(id);
 
                                 if (bola.getX() == jogadorE.getX() && bola.getY() == jogadorE.getY()) {
+                                    double distancia = ResolvedorRemates.distanciaBaliza(jogadorE.getX(), jogadorE.getY(), 0);
                                     System.out.println("Coordenadas para onde a bola vai");
                                     do {
                                         System.out.print("Coordenada x:");
@@ -321,10 +300,12 @@ public class Ex03 {
                                     bola.setY(y);
 
                                     bola.move(x, y);
+                                    jogo.registar(DiarioJogo.REMATE, slotJogo(jogo, lEquipas.get(eq1), jogadorE), 0, x, y);
 
                                     /* Gostava que quando o gurada redes tivesse na mesma posição y que a bola fosse defesa, mas não consegui fazer isso (pensei em colocar a obrigação de possuir um guarda redes em cada equipa) */
-                                    if (bola.getX() == 0 && bola.getY() >= 20 && bola.getY() <= 27) {
+                                    if (bola.getX() == 0 && bola.getY() >= 20 && bola.getY() <= 27 && remates.resolver(distancia)) {
                                         jogadorE.marcarGolo();
+                                        jogo.registar(DiarioJogo.GOLO, slotJogo(jogo, lEquipas.get(eq1), jogadorE), 0, x, y);
                                         System.out.printf("Gooooloooo %s para o %s\n", jogadorE.getId(), lEquipas.get(ind).getNome());
                                         /* Bola ao centro */
                                         bola.setX(45);
@@ -339,7 +320,6 @@ public class Ex03 {
                                             j.setY(20);
                                         }
 
-                                        /* Implementar uma probabilidade através de radom para ser golo ou não de acordo com a distância */
                                         if (ind == 0) {
                                             golos1 += 1;
                                         }
@@ -375,6 +355,7 @@ public class Ex03 {
                                 jogadorE.setX(x);
                                 jogadorE.setY(y);
                                 jogadorE.move(x, y);
+                                jogo.registar(DiarioJogo.MOVIMENTO, slotJogo(jogo, lEquipas.get(ind), jogadorE), 0, x, y);
 
                                 System.out.println(jogadorE.toString());
                                 break;
@@ -406,6 +387,7 @@ public class Ex03 {
 
                                 bola.setX(x);
                                 bola.setY(y);
+                                jogo.registar(DiarioJogo.BOLA, 0, 0, x, y);
 
                                 System.out.printf("Nova posição da bola: |x: %d| |y:%d|\n", bola.getX(), bola.getY());
                                 break;
@@ -417,6 +399,7 @@ public class Ex03 {
                                 }while(tempoP > jogo.getTempo() - jogo.getTempoDecorrido() || tempoP < 0);
 
                                 jogo.setTempoDecorrido(tempoP + jogo.getTempoDecorrido() - 1);
+                                jogo.registar(DiarioJogo.TEMPO, 0, tempoP, bola.getX(), bola.getY());
                                 break;
 
                             default:
@@ -424,11 +407,30 @@ public class Ex03 {
                                 break;
                         }
                     }
+                    fecharDiario(diario, ficheiroDiario);
                 case "0":
                     System.out.println("Obrigado por jogar!");
                     System.exit(0);
                     sc.close();
                     break;
+                case "7":
+                    /* Só entram as equipas que podiam jogar na opção 6 */
+                    ArrayList<Equipa> aptas = new ArrayList<>();
+                    for (Equipa e : lEquipas) {
+                        if (e.getjogadores().size() < 3) {
+                            System.out.printf("Equipa: %s sem jogadores suficientes! (min: 3)\n", e.getNome());
+                        }
+                        else {
+                            aptas.add(e);
+                        }
+                    }
+                    if (aptas.size() < 2) {
+                        System.out.println("São precisas pelo menos 2 equipas!");
+                        break;
+                    }
+                    ResumoLote resumo = new SimuladorLote().temporada(aptas, System.nanoTime());
+                    listClassificacao(aptas, resumo);
+                    break;
                 default:
                     System.out.println("Opção inválida tente novamente!");
                     break;
@@ -436,6 +438,49 @@ public class Ex03 {
         }
     }
 
+    public static Equipa criarEquipa(String nome, String nomeR) {
+        Equipa equipa = new Equipa(nome, nomeR, 0, 0, new ArrayList<>());
+        lEquipas.add(equipa);
+        return equipa;
+    }
+
+    /* Devolve o robo criado, ou null se o id já existir ou a posição for impossível */
+    public static Robo adicionarJogador(int eq, String id, String posit, int x, int y) {
+        if (lJogadores.contem(id) || !coordenadasValidas(posit, x, y)) {
+            return null;
+        }
+        Robo jogador = new Robo(id, posit, 0, x, y, 0);
+        lEquipas.get(eq).addRobo(jogador);
+        lJogadores.add(jogador);
+        return jogador;
+    }
+
+    public static Robo removerJogador(int eq, int ind) {
+        Equipa equipa = lEquipas.get(eq);
+        Robo jogador = equipa.getjogadores().get(ind);
+        equipa.removeRobo(jogador);
+        lJogadores.remove(jogador);
+        return jogador;
+    }
+
+    public static boolean coordenadasValidas(String posit, int x, int y) {
+        switch (posit) {
+            case "GR":
+                return !(x < 0 || x > 5 || y < 0 || 14 > y || y > 32);
+            case "DF":
+                return !(x < 0 || x > 45 || 14 > y || y > 45);
+            case "MD":
+            case "AV":
+                return !(x < 0 || x > 45 || y < 0 || y > 45);
+            default:
+                return false;
+        }
+    }
+
+    public static ArrayList<Equipa> getEquipas() {
+        return lEquipas;
+    }
+
     public static void listJogadores(int indx) {
         System.out.printf("| %10s | %9s | %s |\n", "ID", "Posição", "Golos Mc");
         for (Robo r: lEquipas.get(indx).getjogadores()) {
@@ -459,6 +504,14 @@ public class Ex03 {
         }
     }
 
+    public static void listClassificacao(List<Equipa> equipas, ResumoLote resumo) {
+        System.out.printf("| %10s | %3s | %3s | %3s | %3s | %4s | %4s | %3s |\n", "Nome", "J", "V", "E", "D", "GM", "GS", "Pts");
+        for (int i = 0; i < resumo.getNumEquipas(); i++) {
+            System.out.printf("| %10s | %3d | %3d | %3d | %3d | %4d | %4d | %3d |\n", equipas.get(i).getNome(), resumo.getJogos(i),
+             resumo.getVitorias(i), resumo.getEmpates(i), resumo.getDerrotas(i), resumo.getGolosM(i), resumo.getGolosS(i), resumo.getPontos(i));
+        }
+    }
+
     public static void inGameXY(int eq2) {
         for (Robo  r : lEquipas.get(eq2).getjogadores()) {
             r.setX((45- r.getX()) + 45);
@@ -466,26 +519,64 @@ public class Ex03 {
     }
 
 
-    public static boolean scanJogadores(String id, int indx) {
-        for (Robo r : lEquipas.get(indx).getjogadores()) {
-            if (r.getId().equals(id)) {
-                return true;
+    /* Diário do jogo num ficheiro; sem diário (null) se não for possível criá-lo */
+    public static DiarioJogo novoDiario(Path ficheiro) {
+        try {
+            return new DiarioJogo(ficheiro, 1024);
+        } catch (IOException e) {
+            System.out.println("Jogo sem diário: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public static void fecharDiario(DiarioJogo diario, Path ficheiro) {
+        if (diario == null) {
+            return;
+        }
+        try {
+            diario.close();
+            System.out.printf("Diário do jogo gravado em %s (%d eventos)\n", ficheiro, diario.tamanho());
+        } catch (IOException e) {
+            System.out.println("Erro ao gravar o diário: " + e.getMessage());
+        }
+    }
+
+    /* Slot do jogador no diário do jogo (0 é a bola, depois equipa1 e equipa2) */
+    public static int slotJogo(Jogo jogo, Equipa equipa, Robo r) {
+        int i = equipa.getPlantel().indiceDe(r.getId());
+        if (i == -1) {
+            throw new IllegalArgumentException("Jogador " + r.getId() + " não pertence à equipa " + equipa.getNome());
+        }
+        if (equipa == jogo.getEquipa1()) {
+            return 1 + i;
+        }
+        return 1 + jogo.getEquipa1().getjogadores().size() + i;
+    }
+
+    /* Slot do primeiro jogador do jogo em (x, y), ou -1 */
+    public static int slotEm(Jogo jogo, int x, int y) {
+        int s = 1;
+        for (Robo r : jogo.getEquipa1().getjogadores()) {
+            if (r.getX() == x && r.getY() == y) {
+                return s;
             }
+            s++;
         }
-        return false;
+        for (Robo r : jogo.getEquipa2().getjogadores()) {
+            if (r.getX() == x && r.getY() == y) {
+                return s;
+            }
+            s++;
+        }
+        return -1;
+    }
+
+    public static boolean scanJogadores(String id, int indx) {
+        return lEquipas.get(indx).contemJogador(id);
     }
 
     public static double calcularProbabilidade(double distancia) { /* Tirado da internet */
-        double intercepto = 100; // Probabilidade máxima em metros
-        double inclinacao = -0.5; // Taxa de queda da probabilidade por metro
-        
-        // Calcular a probabilidade de acordo com a função linear: probabilidade = intercepto + inclinação * distância
-        double probabilidade = intercepto + inclinacao * distancia;
-        
-        // Garantir que a probabilidade esteja dentro do intervalo [0, 100]
-        probabilidade = Math.max(0, Math.min(100, probabilidade));
-        
-        return probabilidade;
+        return ResolvedorRemates.percentagem(distancia);
     }
 
 }
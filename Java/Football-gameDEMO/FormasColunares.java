@@ -0,0 +1,318 @@
+package aula07;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/* Formas guardadas em colunas primitivas, separadas por tipo:
+     círculos:    raio, centroX, centroY
+     retângulos:  comprimento, altura
+     triângulos:  lado1, lado2, lado3
+   As cores são codificadas num dicionário (int por forma). As contas em massa são ciclos
+   monomórficos sobre arrays, com as mesmas fórmulas do area()/perimetro() de cada classe.
+   forma(tipo, i) devolve uma cópia como Forma para o código que trabalha com objetos. */
+public class FormasColunares {
+
+    public static final int CIRCULO = 0;
+    public static final int RETANGULO = 1;
+    public static final int TRIANGULO = 2;
+
+    private final Coluna[] colunas = {new Coluna(), new Coluna(), new Coluna()};
+
+    private String[] cores = new String[8];
+    private int nCores = 0;
+    private final HashMap<String, Integer> idCor = new HashMap<>();
+    private String ultimaCor;
+    private int ultimoId;
+
+    public static FormasColunares de(List<? extends Forma> formas) {
+        FormasColunares f = new FormasColunares();
+        for (Forma forma : formas) {
+            f.add(forma);
+        }
+        return f;
+    }
+
+    public int tamanho(int tipo) {
+        return colunas[tipo].n;
+    }
+
+    public int tamanho() {
+        return colunas[CIRCULO].n + colunas[RETANGULO].n + colunas[TRIANGULO].n;
+    }
+
+    public int numCores() {
+        return nCores;
+    }
+
+    public String cor(int id) {
+        return cores[id];
+    }
+
+    /* id da cor, ou -1 se ainda não foi usada (não a acrescenta) */
+    public int procurarCor(String cor) {
+        Integer id = idCor.get(cor);
+        return id == null ? -1 : id;
+    }
+
+    /* As cargas em massa repetem a mesma String, por isso a última fica guardada */
+    public int idCor(String cor) {
+        if (cor == ultimaCor) {
+            return ultimoId;
+        }
+        Integer id = idCor.get(cor);
+        if (id == null) {
+            if (nCores == cores.length) {
+                cores = Arrays.copyOf(cores, nCores * 2);
+            }
+            id = nCores;
+            cores[nCores++] = cor;
+            idCor.put(cor, id);
+        }
+        ultimaCor = cor;
+        ultimoId = id;
+        return id;
+    }
+
+    public void add(Forma f) {
+        if (f instanceof Circle) {
+            Circle c = (Circle) f;
+            if (c.getCentro() == null) {
+                throw new IllegalArgumentException("Círculo sem centro: " + c);
+            }
+            addCirculo(c.getRaio(), c.getCentro().getX(), c.getCentro().getY(), idCor(c.getCor()));
+        }
+        else if (f instanceof Retangle) {
+            Retangle r = (Retangle) f;
+            addRetangulo(r.getComprimento(), r.getAltura(), idCor(r.getCor()));
+        }
+        else if (f instanceof Triangle) {
+            Triangle t = (Triangle) f;
+            addTriangulo(t.getLado1(), t.getLado2(), t.getLado3(), idCor(t.getCor()));
+        }
+        else {
+            throw new IllegalArgumentException("Forma desconhecida: " + f.getClass().getSimpleName());
+        }
+    }
+
+    public int addCirculo(double raio, double x, double y, int cor) {
+        return colunas[CIRCULO].add(raio, x, y, cor);
+    }
+
+    public int addRetangulo(double comprimento, double altura, int cor) {
+        return colunas[RETANGULO].add(comprimento, altura, 0, cor);
+    }
+
+    public int addTriangulo(double l1, double l2, double l3, int cor) {
+        return colunas[TRIANGULO].add(l1, l2, l3, cor);
+    }
+
+    /* Junta todas as formas de outra coleção (as cores são recodificadas) */
+    public void juntar(FormasColunares o) {
+        int[] mapa = new int[o.nCores];
+        for (int c = 0; c < o.nCores; c++) {
+            mapa[c] = idCor(o.cores[c]);
+        }
+        for (int t = 0; t < colunas.length; t++) {
+            Coluna src = o.colunas[t];
+            for (int i = 0; i < src.n; i++) {
+                colunas[t].add(src.a[i], src.b[i], src.c[i], mapa[src.cor[i]]);
+            }
+        }
+    }
+
+    /* Dimensões da forma i do tipo: (raio, x, y), (comprimento, altura, 0) ou (l1, l2, l3) */
+    public double a(int tipo, int i) {
+        return colunas[tipo].a[i];
+    }
+
+    public double b(int tipo, int i) {
+        return colunas[tipo].b[i];
+    }
+
+    public double c(int tipo, int i) {
+        return colunas[tipo].c[i];
+    }
+
+    public int corDe(int tipo, int i) {
+        return colunas[tipo].cor[i];
+    }
+
+    public Forma forma(int tipo, int i) {
+        Coluna col = colunas[tipo];
+        String cor = cores[col.cor[i]];
+        switch (tipo) {
+            case CIRCULO:
+                return new Circle(col.a[i], new Ponto(col.b[i], col.c[i]), cor);
+            case RETANGULO:
+                return new Retangle(col.a[i], col.b[i], cor);
+            default:
+                return new Triangle(col.a[i], col.b[i], col.c[i], cor);
+        }
+    }
+
+    public double area(int tipo, int i) {
+        Coluna col = colunas[tipo];
+        double a = col.a[i];
+        switch (tipo) {
+            case CIRCULO:
+                return 2 * Math.PI * a * a;
+            case RETANGULO:
+                return a * col.b[i];
+            default:
+                double s = (a + col.b[i] + col.c[i]) / 2;
+                return Math.sqrt(s * (s - a) * (s - col.b[i]) * (s - col.c[i]));
+        }
+    }
+
+    public double perimetro(int tipo, int i) {
+        Coluna col = colunas[tipo];
+        switch (tipo) {
+            case CIRCULO:
+                return 2 * Math.PI * col.a[i];
+            case RETANGULO:
+                return 2 * col.a[i] + 2 * col.b[i];
+            default:
+                return col.a[i] + col.b[i] + col.c[i];
+        }
+    }
+
+    /* out[i] = área da forma i do tipo */
+    public void areas(int tipo, double[] out) {
+        Coluna col = colunas[tipo];
+        int n = col.n;
+        double[] a = col.a;
+        double[] b = col.b;
+        double[] c = col.c;
+        switch (tipo) {
+            case CIRCULO:
+                for (int i = 0; i < n; i++) {
+                    out[i] = 2 * Math.PI * a[i] * a[i];
+                }
+                break;
+            case RETANGULO:
+                for (int i = 0; i < n; i++) {
+                    out[i] = a[i] * b[i];
+                }
+                break;
+            default:
+                for (int i = 0; i < n; i++) {
+                    double s = (a[i] + b[i] + c[i]) / 2;
+                    out[i] = Math.sqrt(s * (s - a[i]) * (s - b[i]) * (s - c[i]));
+                }
+                break;
+        }
+    }
+
+    public void perimetros(int tipo, double[] out) {
+        Coluna col = colunas[tipo];
+        int n = col.n;
+        double[] a = col.a;
+        double[] b = col.b;
+        double[] c = col.c;
+        switch (tipo) {
+            case CIRCULO:
+                for (int i = 0; i < n; i++) {
+                    out[i] = 2 * Math.PI * a[i];
+                }
+                break;
+            case RETANGULO:
+                for (int i = 0; i < n; i++) {
+                    out[i] = 2 * a[i] + 2 * b[i];
+                }
+                break;
+            default:
+                for (int i = 0; i < n; i++) {
+                    out[i] = a[i] + b[i] + c[i];
+                }
+                break;
+        }
+    }
+
+    public double somaAreas(int tipo) {
+        Coluna col = colunas[tipo];
+        int n = col.n;
+        double[] a = col.a;
+        double[] b = col.b;
+        double[] c = col.c;
+        double soma = 0;
+        switch (tipo) {
+            case CIRCULO:
+                for (int i = 0; i < n; i++) {
+                    soma += a[i] * a[i];
+                }
+                return 2 * Math.PI * soma;
+            case RETANGULO:
+                for (int i = 0; i < n; i++) {
+                    soma += a[i] * b[i];
+                }
+                return soma;
+            default:
+                for (int i = 0; i < n; i++) {
+                    double s = (a[i] + b[i] + c[i]) / 2;
+                    soma += Math.sqrt(s * (s - a[i]) * (s - b[i]) * (s - c[i]));
+                }
+                return soma;
+        }
+    }
+
+    public double somaPerimetros(int tipo) {
+        Coluna col = colunas[tipo];
+        int n = col.n;
+        double[] a = col.a;
+        double[] b = col.b;
+        double[] c = col.c;
+        double soma = 0;
+        switch (tipo) {
+            case CIRCULO:
+                for (int i = 0; i < n; i++) {
+                    soma += a[i];
+                }
+                return 2 * Math.PI * soma;
+            case RETANGULO:
+                for (int i = 0; i < n; i++) {
+                    soma += a[i] + b[i];
+                }
+                return 2 * soma;
+            default:
+                for (int i = 0; i < n; i++) {
+                    soma += a[i] + b[i] + c[i];
+                }
+                return soma;
+        }
+    }
+
+    public double somaAreas() {
+        return somaAreas(CIRCULO) + somaAreas(RETANGULO) + somaAreas(TRIANGULO);
+    }
+
+    public double somaPerimetros() {
+        return somaPerimetros(CIRCULO) + somaPerimetros(RETANGULO) + somaPerimetros(TRIANGULO);
+    }
+
+    /* Três colunas de dimensões e a cor; b/c não usadas ficam a 0 */
+    private static class Coluna {
+
+        double[] a = new double[16];
+        double[] b = new double[16];
+        double[] c = new double[16];
+        int[] cor = new int[16];
+        int n = 0;
+
+        int add(double va, double vb, double vc, int vcor) {
+            if (n == a.length) {
+                int cap = n * 2;
+                a = Arrays.copyOf(a, cap);
+                b = Arrays.copyOf(b, cap);
+                c = Arrays.copyOf(c, cap);
+                cor = Arrays.copyOf(cor, cap);
+            }
+            a[n] = va;
+            b[n] = vb;
+            c[n] = vc;
+            cor[n] = vcor;
+            return n++;
+        }
+    }
+
+}
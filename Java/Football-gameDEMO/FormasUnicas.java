@@ -0,0 +1,267 @@
+package aula07;
+
+import java.util.Arrays;
+
+/* Conjunto de formas por valor: duas formas são a mesma se têm o mesmo tipo, as mesmas
+   dimensões (no círculo também o centro) e a mesma cor. Cada forma única é guardada uma vez
+   num FormasColunares e recebe um id sequencial; repetidas só aumentam a contagem.
+   A tabela é endereçamento aberto com sondagem linear sobre longs (hash << 32 | id), sem
+   objetos por entrada; as colisões de hash resolvem-se sem ler as colunas. Mudar depois uma forma devolvida por
+   intern() deixa a tabela desatualizada. */
+public class FormasUnicas {
+
+    private final FormasColunares formas = new FormasColunares();
+
+    private static final long VAZIO = -1L;
+
+    private long[] tabela;
+    private int mascara;
+
+    private byte[] tipo = new byte[16];
+    private int[] pos = new int[16];
+    private int[] hash = new int[16];
+    private int[] contagem = new int[16];
+    private Forma[] canonica;
+    private int n = 0;
+    private long total = 0;
+
+    public FormasUnicas() {
+        this(16);
+    }
+
+    public FormasUnicas(int capacidade) {
+        int cap = Integer.highestOneBit(Math.max(16, capacidade * 2 - 1)) << 1;
+        tabela = new long[cap];
+        Arrays.fill(tabela, VAZIO);
+        mascara = cap - 1;
+    }
+
+    public int unicas() {
+        return n;
+    }
+
+    /* Número de formas adicionadas, contando repetidas */
+    public long total() {
+        return total;
+    }
+
+    public int contagem(int id) {
+        return contagem[id];
+    }
+
+    public int tipoDe(int id) {
+        return tipo[id];
+    }
+
+    /* Posição da forma id dentro do tipo dela em colunas() */
+    public int posicaoDe(int id) {
+        return pos[id];
+    }
+
+    /* As formas únicas, por tipo */
+    public FormasColunares colunas() {
+        return formas;
+    }
+
+    /* Adiciona e devolve o id da forma (novo ou o da igual já guardada) */
+    public int adicionar(Forma f) {
+        return adicionar(tipoDe(f), dimA(f), dimB(f), dimC(f), f.getCor());
+    }
+
+    public int adicionar(int t, double a, double b, double c, String cor) {
+        a += 0.0;
+        b += 0.0;
+        c += 0.0;
+        int idCor = formas.idCor(cor);
+        int h = hash(t, a, b, c, idCor);
+        int id = procurar(t, a, b, c, idCor, h);
+        if (id == -1) {
+            id = novo(t, a, b, c, idCor, h);
+        }
+        contagem[id]++;
+        total++;
+        return id;
+    }
+
+    /* id da forma igual a f, ou -1 */
+    public int procurar(Forma f) {
+        return procurar(tipoDe(f), dimA(f), dimB(f), dimC(f), f.getCor());
+    }
+
+    public int procurar(int t, double a, double b, double c, String cor) {
+        a += 0.0;
+        b += 0.0;
+        c += 0.0;
+        int idCor = formas.procurarCor(cor);
+        if (idCor == -1) {
+            return -1;
+        }
+        return procurar(t, a, b, c, idCor, hash(t, a, b, c, idCor));
+    }
+
+    /* Forma guardada para este valor: a primeira instância adicionada por intern, ou uma
+       criada a partir das colunas se o valor só entrou por adicionar */
+    public Forma intern(Forma f) {
+        int id = adicionar(f);
+        if (canonica == null) {
+            canonica = new Forma[tipo.length];
+        }
+        if (canonica[id] == null) {
+            canonica[id] = f;
+        }
+        return canonica[id];
+    }
+
+    public Forma forma(int id) {
+        if (canonica != null && canonica[id] != null) {
+            return canonica[id];
+        }
+        return formas.forma(tipo[id], pos[id]);
+    }
+
+    private int procurar(int t, double a, double b, double c, int cor, int h) {
+        for (int i = h & mascara; ; i = (i + 1) & mascara) {
+            long e = tabela[i];
+            if (e == VAZIO) {
+                return -1;
+            }
+            int id = (int) e;
+            if ((int) (e >>> 32) == h && tipo[id] == t) {
+                int p = pos[id];
+                if (formas.corDe(t, p) == cor && igual(formas.a(t, p), a)
+                        && igual(formas.b(t, p), b) && igual(formas.c(t, p), c)) {
+                    return id;
+                }
+            }
+        }
+    }
+
+    private int novo(int t, double a, double b, double c, int cor, int h) {
+        if (n == tipo.length) {
+            int cap = n * 2;
+            tipo = Arrays.copyOf(tipo, cap);
+            pos = Arrays.copyOf(pos, cap);
+            hash = Arrays.copyOf(hash, cap);
+            contagem = Arrays.copyOf(contagem, cap);
+            if (canonica != null) {
+                canonica = Arrays.copyOf(canonica, cap);
+            }
+        }
+        int p;
+        switch (t) {
+            case FormasColunares.CIRCULO:
+                p = formas.addCirculo(a, b, c, cor);
+                break;
+            case FormasColunares.RETANGULO:
+                p = formas.addRetangulo(a, b, cor);
+                break;
+            default:
+                p = formas.addTriangulo(a, b, c, cor);
+                break;
+        }
+        int id = n++;
+        tipo[id] = (byte) t;
+        pos[id] = p;
+        hash[id] = h;
+        contagem[id] = 0;
+
+        if (n * 4 > tabela.length * 3) {
+            crescer();
+        }
+        else {
+            colocar(id);
+        }
+        return id;
+    }
+
+    private void colocar(int id) {
+        int i = hash[id] & mascara;
+        while (tabela[i] != VAZIO) {
+            i = (i + 1) & mascara;
+        }
+        tabela[i] = (long) hash[id] << 32 | id;
+    }
+
+    private void crescer() {
+        tabela = new long[tabela.length * 2];
+        Arrays.fill(tabela, VAZIO);
+        mascara = tabela.length - 1;
+        for (int id = 0; id < n; id++) {
+            colocar(id);
+        }
+    }
+
+    /* Mesmos bits (0.0 e -0.0 já foram juntados com += 0.0), a mesma regra do Circle.equals */
+    private static boolean igual(double x, double y) {
+        return Double.doubleToLongBits(x) == Double.doubleToLongBits(y);
+    }
+
+    /* Mistura os bits de todas as dimensões, do tipo e da cor (finalizador do MurmurHash3) */
+    static int hash(int t, double a, double b, double c, int cor) {
+        long h = t * 0x9E3779B97F4A7C15L + cor;
+        h = mistura(h ^ Double.doubleToLongBits(a));
+        h = mistura(h ^ Double.doubleToLongBits(b));
+        h = mistura(h ^ Double.doubleToLongBits(c));
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static long mistura(long h) {
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int tipoDe(Forma f) {
+        if (f instanceof Circle) {
+            return FormasColunares.CIRCULO;
+        }
+        if (f instanceof Retangle) {
+            return FormasColunares.RETANGULO;
+        }
+        if (f instanceof Triangle) {
+            return FormasColunares.TRIANGULO;
+        }
+        throw new IllegalArgumentException("Forma desconhecida: " + f.getClass().getSimpleName());
+    }
+
+    private static double dimA(Forma f) {
+        if (f instanceof Circle) {
+            return ((Circle) f).getRaio();
+        }
+        if (f instanceof Retangle) {
+            return ((Retangle) f).getComprimento();
+        }
+        return ((Triangle) f).getLado1();
+    }
+
+    private static double dimB(Forma f) {
+        if (f instanceof Circle) {
+            return centro((Circle) f).getX();
+        }
+        if (f instanceof Retangle) {
+            return ((Retangle) f).getAltura();
+        }
+        return ((Triangle) f).getLado2();
+    }
+
+    private static double dimC(Forma f) {
+        if (f instanceof Circle) {
+            return centro((Circle) f).getY();
+        }
+        if (f instanceof Retangle) {
+            return 0;
+        }
+        return ((Triangle) f).getLado3();
+    }
+
+    /* As colunas não têm como guardar um círculo sem centro */
+    private static Ponto centro(Circle c) {
+        if (c.getCentro() == null) {
+            throw new IllegalArgumentException("Círculo sem centro: " + c);
+        }
+        return c.getCentro();
+    }
+
+}
@@ -0,0 +1,172 @@
+package aula07;
+
+/* Grelha uniforme (células de CELULA m) sobre o campo de 90x50 para os slots [de, ate[ de um Posicoes.
+   Cada célula tem uma lista duplamente ligada de slots em arrays, atualizada pelo Posicoes sempre
+   que uma posição muda, por isso mover um jogador é O(1). Coordenadas fora do campo contam na
+   célula da borda. */
+public class GrelhaCampo {
+
+    public static final int CELULA = 5;
+
+    private static final int COLUNAS = MotorJogo.CAMPO_X / CELULA + 1;
+    private static final int LINHAS = MotorJogo.CAMPO_Y / CELULA + 1;
+
+    private final Posicoes pos;
+    private final int de;
+    private final int ate;
+    private final int[] cabeca = new int[COLUNAS * LINHAS];
+    private final int[] prox;
+    private final int[] ant;
+    private final int[] celula;
+
+    GrelhaCampo(Posicoes pos, int de, int ate) {
+        this.pos = pos;
+        this.de = de;
+        this.ate = ate;
+        prox = new int[pos.capacidade()];
+        ant = new int[pos.capacidade()];
+        celula = new int[pos.capacidade()];
+        java.util.Arrays.fill(cabeca, -1);
+        for (int s = de; s < ate; s++) {
+            inserir(s, celulaDe(pos.x[s], pos.y[s]));
+        }
+    }
+
+    /* Chamado pelo Posicoes depois de mudar o slot */
+    void atualizar(int slot) {
+        if (slot < de || slot >= ate) {
+            return;
+        }
+        int c = celulaDe(pos.x[slot], pos.y[slot]);
+        if (c != celula[slot]) {
+            retirar(slot);
+            inserir(slot, c);
+        }
+    }
+
+    /* Slot em [sDe, sAte[ mais próximo de (px, py), ou -1; empata no slot mais baixo */
+    public int maisProximo(int px, int py, int sDe, int sAte) {
+        int cx = coluna(px);
+        int cy = linha(py);
+        int melhor = -1;
+        long melhorD = Long.MAX_VALUE;
+        int maxAnel = Math.max(COLUNAS, LINHAS);
+
+        for (int k = 0; k <= maxAnel; k++) {
+            for (int y = cy - k; y <= cy + k; y++) {
+                if (y < 0 || y >= LINHAS) {
+                    continue;
+                }
+                boolean borda = y == cy - k || y == cy + k;
+                int passo = borda ? 1 : 2 * k;
+                for (int x = cx - k; x <= cx + k; x += Math.max(1, passo)) {
+                    if (x < 0 || x >= COLUNAS) {
+                        continue;
+                    }
+                    for (int s = cabeca[y * COLUNAS + x]; s != -1; s = prox[s]) {
+                        if (s < sDe || s >= sAte) {
+                            continue;
+                        }
+                        long d = distancia2(s, px, py);
+                        if (d < melhorD || (d == melhorD && s < melhor)) {
+                            melhor = s;
+                            melhorD = d;
+                        }
+                    }
+                }
+            }
+            long raioSeguro = (long) k * CELULA;
+            if (melhor != -1 && melhorD < raioSeguro * raioSeguro) {
+                break;
+            }
+        }
+        return melhor;
+    }
+
+    /* Escreve em out os slots a distância <= r de (px, py) e devolve quantos são; se forem mais
+       do que out.length só os primeiros cabem em out e é preciso repetir com um array maior */
+    public int noRaio(int px, int py, int r, int[] out) {
+        int n = 0;
+        long r2 = (long) r * r;
+        int x1 = coluna(px + r);
+        int y1 = linha(py + r);
+        for (int y = linha(py - r); y <= y1; y++) {
+            for (int x = coluna(px - r); x <= x1; x++) {
+                for (int s = cabeca[y * COLUNAS + x]; s != -1; s = prox[s]) {
+                    if (distancia2(s, px, py) <= r2) {
+                        if (n < out.length) {
+                            out[n] = s;
+                        }
+                        n++;
+                    }
+                }
+            }
+        }
+        return n;
+    }
+
+    /* Escreve em out os slots dentro de [x0, x1] x [y0, y1] e devolve quantos são (como no noRaio,
+       pode ser mais do que out.length) */
+    public int noRetangulo(int x0, int y0, int x1, int y1, int[] out) {
+        int n = 0;
+        int c1 = coluna(x1);
+        int l1 = linha(y1);
+        for (int y = linha(y0); y <= l1; y++) {
+            for (int x = coluna(x0); x <= c1; x++) {
+                for (int s = cabeca[y * COLUNAS + x]; s != -1; s = prox[s]) {
+                    int sx = pos.x[s];
+                    int sy = pos.y[s];
+                    if (sx >= x0 && sx <= x1 && sy >= y0 && sy <= y1) {
+                        if (n < out.length) {
+                            out[n] = s;
+                        }
+                        n++;
+                    }
+                }
+            }
+        }
+        return n;
+    }
+
+    private void inserir(int slot, int c) {
+        celula[slot] = c;
+        ant[slot] = -1;
+        prox[slot] = cabeca[c];
+        if (cabeca[c] != -1) {
+            ant[cabeca[c]] = slot;
+        }
+        cabeca[c] = slot;
+    }
+
+    private void retirar(int slot) {
+        int c = celula[slot];
+        if (ant[slot] != -1) {
+            prox[ant[slot]] = prox[slot];
+        }
+        else {
+            cabeca[c] = prox[slot];
+        }
+        if (prox[slot] != -1) {
+            ant[prox[slot]] = ant[slot];
+        }
+    }
+
+    private long distancia2(int s, int px, int py) {
+        long dx = pos.x[s] - px;
+        long dy = pos.y[s] - py;
+        return dx * dx + dy * dy;
+    }
+
+    private static int celulaDe(int x, int y) {
+        return linha(y) * COLUNAS + coluna(x);
+    }
+
+    private static int coluna(int x) {
+        return Math.max(0, Math.min(COLUNAS - 1, x / CELULA));
+    }
+
+    private static int linha(int y) {
+        return Math.max(0, Math.min(LINHAS - 1, y / CELULA));
+    }
+
+}
@@ -0,0 +1,606 @@
+package aula07;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/* Índice espacial de Circle: árvore de caixas (R-tree binária dinâmica) sobre as caixas
+   [x - r, x + r] x [y - r, y + r]. Os nós vivem em arrays; cada folha é um círculo e cada nó
+   interno guarda a união das caixas dos filhos. A inserção escolhe o irmão com o menor
+   aumento de perímetro e a subida aplica rotações que diminuem o perímetro dos nós, por isso
+   as caixas irmãs quase não se sobrepõem e as consultas descem O(log n) nós.
+   O índice guarda a folha de cada círculo (por identidade, não por equals), por isso um Circle
+   pode estar em vários índices. Cada Circle conhece os índices onde está e setRaio/setCentro
+   atualizam-nos sozinhos; atualizar(c) só é preciso se o Ponto do centro for mudado no sítio.
+   As consultas não alteram o índice (cada uma usa a sua pilha) e
+   podem correr em várias threads ao mesmo tempo, desde que nenhuma o esteja a alterar. */
+public class IndiceCirculos {
+
+    private double[] minX = new double[16];
+    private double[] minY = new double[16];
+    private double[] maxX = new double[16];
+    private double[] maxY = new double[16];
+    private int[] pai = new int[16];
+    private int[] esq = new int[16];
+    private int[] dir = new int[16];
+    private int[] altura = new int[16];
+    private Circle[] circulo = new Circle[16];
+    private final IdentityHashMap<Circle, Integer> folhas = new IdentityHashMap<>();
+    private int nNos = 0;
+    private int livre = -1;
+    private int raiz = -1;
+    private int tamanho = 0;
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public int altura() {
+        return raiz == -1 ? 0 : altura[raiz];
+    }
+
+    public boolean contem(Circle c) {
+        return folhas.containsKey(c);
+    }
+
+    /* false se o círculo já está no índice */
+    public boolean inserir(Circle c) {
+        if (folhas.containsKey(c)) {
+            return false;
+        }
+        int folha = alocar();
+        circulo[folha] = c;
+        caixa(folha, c);
+        inserirFolha(folha);
+        folhas.put(c, folha);
+        c.entrouEm(this);
+        tamanho++;
+        return true;
+    }
+
+    /* Insere vários de uma vez. Com o índice vazio constrói a árvore de cima para baixo,
+       dividindo pela mediana do eixo mais comprido, em O(n log n); senão insere um a um. */
+    public void inserirTodos(Collection<Circle> cs) {
+        if (raiz != -1) {
+            for (Circle c : cs) {
+                inserir(c);
+            }
+            return;
+        }
+        int[] novas = new int[cs.size()];
+        int n = 0;
+        for (Circle c : cs) {
+            if (folhas.containsKey(c)) {
+                continue;
+            }
+            int f = alocar();
+            circulo[f] = c;
+            caixa(f, c);
+            esq[f] = -1;
+            dir[f] = -1;
+            altura[f] = 0;
+            folhas.put(c, f);
+            c.entrouEm(this);
+            novas[n++] = f;
+        }
+        if (n > 0) {
+            raiz = construir(novas, 0, n);
+            pai[raiz] = -1;
+            tamanho = n;
+        }
+    }
+
+    public boolean remover(Circle c) {
+        Integer folha = folhas.remove(c);
+        if (folha == null) {
+            return false;
+        }
+        c.saiuDe(this);
+        removerFolha(folha);
+        libertar(folha);
+        tamanho--;
+        return true;
+    }
+
+    /* Volta a pôr o círculo na posição certa; setRaio e setCentro já o fazem, isto é para
+       quando se muda o Ponto do centro sem passar pelo Circle */
+    public void atualizar(Circle c) {
+        Integer f = folhas.get(c);
+        if (f == null) {
+            return;
+        }
+        int folha = f;
+        Ponto p = c.getCentro();
+        double r = c.getRaio();
+        if (minX[folha] == p.getX() - r && minY[folha] == p.getY() - r
+                && maxX[folha] == p.getX() + r && maxY[folha] == p.getY() + r) {
+            return;
+        }
+        removerFolha(folha);
+        caixa(folha, c);
+        inserirFolha(folha);
+    }
+
+    /* Junta a out os círculos que intersetam [x0, x1] x [y0, y1]; devolve quantos */
+    public int naJanela(double x0, double y0, double x1, double y1, List<Circle> out) {
+        int n = 0;
+        Pilha pilha = new Pilha();
+        pilha.push(raiz);
+        while (pilha.n > 0) {
+            int i = pilha.pop();
+            if (maxX[i] < x0 || minX[i] > x1 || maxY[i] < y0 || minY[i] > y1) {
+                continue;
+            }
+            if (esq[i] == -1) {
+                Circle c = circulo[i];
+                double px = Math.max(x0, Math.min(x1, c.getCentro().getX()));
+                double py = Math.max(y0, Math.min(y1, c.getCentro().getY()));
+                if (distancia2(c, px, py) <= c.getRaio() * c.getRaio()) {
+                    out.add(c);
+                    n++;
+                }
+            }
+            else {
+                pilha.push(esq[i]);
+                pilha.push(dir[i]);
+            }
+        }
+        return n;
+    }
+
+    /* Junta a out os círculos que contêm o ponto (x, y); devolve quantos */
+    public int contendo(double x, double y, List<Circle> out) {
+        int n = 0;
+        Pilha pilha = new Pilha();
+        pilha.push(raiz);
+        while (pilha.n > 0) {
+            int i = pilha.pop();
+            if (x < minX[i] || x > maxX[i] || y < minY[i] || y > maxY[i]) {
+                continue;
+            }
+            if (esq[i] == -1) {
+                Circle c = circulo[i];
+                if (distancia2(c, x, y) <= c.getRaio() * c.getRaio()) {
+                    out.add(c);
+                    n++;
+                }
+            }
+            else {
+                pilha.push(esq[i]);
+                pilha.push(dir[i]);
+            }
+        }
+        return n;
+    }
+
+    /* Junta a out os círculos que se sobrepõem a c (sem contar c); devolve quantos */
+    public int sobrepostos(Circle c, List<Circle> out) {
+        double cx = c.getCentro().getX();
+        double cy = c.getCentro().getY();
+        double r = c.getRaio();
+        int n = 0;
+        Pilha pilha = new Pilha();
+        pilha.push(raiz);
+        while (pilha.n > 0) {
+            int i = pilha.pop();
+            if (maxX[i] < cx - r || minX[i] > cx + r || maxY[i] < cy - r || minY[i] > cy + r) {
+                continue;
+            }
+            if (esq[i] == -1) {
+                Circle o = circulo[i];
+                double soma = o.getRaio() + r;
+                if (o != c && distancia2(o, cx, cy) <= soma * soma) {
+                    out.add(o);
+                    n++;
+                }
+            }
+            else {
+                pilha.push(esq[i]);
+                pilha.push(dir[i]);
+            }
+        }
+        return n;
+    }
+
+    /* Os k círculos mais próximos de (x, y), do mais perto para o mais longe. A distância
+       é até ao disco (0 se o ponto está dentro). Procura best-first por um heap de nós. */
+    public List<Circle> maisProximos(double x, double y, int k) {
+        List<Circle> res = new ArrayList<>(Math.max(0, Math.min(k, tamanho)));
+        if (raiz == -1 || k <= 0) {
+            return res;
+        }
+        Heap heap = new Heap();
+        heap.push(distanciaCaixa(raiz, x, y), raiz);
+        while (heap.n > 0 && res.size() < k) {
+            int i = heap.no[0];
+            heap.pop();
+            if (i < 0) {
+                res.add(circulo[~i]);
+            }
+            else if (esq[i] == -1) {
+                Circle c = circulo[i];
+                double d = Math.max(0, Math.sqrt(distancia2(c, x, y)) - c.getRaio());
+                heap.push(d, ~i);
+            }
+            else {
+                heap.push(distanciaCaixa(esq[i], x, y), esq[i]);
+                heap.push(distanciaCaixa(dir[i], x, y), dir[i]);
+            }
+        }
+        return res;
+    }
+
+    /* Subárvore com as folhas [de, ate[; reordena essa parte do array */
+    private int construir(int[] folhas, int de, int ate) {
+        if (ate - de == 1) {
+            return folhas[de];
+        }
+        double x0 = Double.POSITIVE_INFINITY;
+        double y0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY;
+        double y1 = Double.NEGATIVE_INFINITY;
+        for (int k = de; k < ate; k++) {
+            int f = folhas[k];
+            double cx = minX[f] + maxX[f];
+            double cy = minY[f] + maxY[f];
+            x0 = Math.min(x0, cx);
+            x1 = Math.max(x1, cx);
+            y0 = Math.min(y0, cy);
+            y1 = Math.max(y1, cy);
+        }
+        int meio = (de + ate) >>> 1;
+        selecionar(folhas, de, ate - 1, meio, x1 - x0 >= y1 - y0);
+
+        int a = construir(folhas, de, meio);
+        int b = construir(folhas, meio, ate);
+        int no = alocar();
+        circulo[no] = null;
+        esq[no] = a;
+        dir[no] = b;
+        pai[a] = no;
+        pai[b] = no;
+        uniao(no, a, b);
+        altura[no] = 1 + Math.max(altura[a], altura[b]);
+        return no;
+    }
+
+    /* Quickselect: deixa em folhas[k] a folha de ordem k pelo centro no eixo, as menores antes */
+    private void selecionar(int[] folhas, int lo, int hi, int k, boolean eixoX) {
+        while (lo < hi) {
+            double pivo = chave(folhas[(lo + hi) >>> 1], eixoX);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (chave(folhas[i], eixoX) < pivo) {
+                    i++;
+                }
+                while (chave(folhas[j], eixoX) > pivo) {
+                    j--;
+                }
+                if (i <= j) {
+                    int t = folhas[i];
+                    folhas[i] = folhas[j];
+                    folhas[j] = t;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            }
+            else if (k >= i) {
+                lo = i;
+            }
+            else {
+                return;
+            }
+        }
+    }
+
+    private double chave(int f, boolean eixoX) {
+        return eixoX ? minX[f] + maxX[f] : minY[f] + maxY[f];
+    }
+
+    private void inserirFolha(int folha) {
+        altura[folha] = 0;
+        esq[folha] = -1;
+        dir[folha] = -1;
+        if (raiz == -1) {
+            raiz = folha;
+            pai[folha] = -1;
+            return;
+        }
+
+        /* Desce pelo filho cujo custo (aumento de perímetro) é menor, ou para aqui */
+        int i = raiz;
+        while (esq[i] != -1) {
+            double area = perimetro(i);
+            double juntos = perimetroUniao(i, folha);
+            double custo = 2 * juntos;
+            double herdado = 2 * (juntos - area);
+            double custo1 = custoDescer(esq[i], folha) + herdado;
+            double custo2 = custoDescer(dir[i], folha) + herdado;
+            if (custo < custo1 && custo < custo2) {
+                break;
+            }
+            i = custo1 < custo2 ? esq[i] : dir[i];
+        }
+
+        int irmao = i;
+        int antigo = pai[irmao];
+        int novo = alocar();
+        pai[novo] = antigo;
+        circulo[novo] = null;
+        altura[novo] = altura[irmao] + 1;
+        esq[novo] = irmao;
+        dir[novo] = folha;
+        uniao(novo, irmao, folha);
+        if (antigo == -1) {
+            raiz = novo;
+        }
+        else if (esq[antigo] == irmao) {
+            esq[antigo] = novo;
+        }
+        else {
+            dir[antigo] = novo;
+        }
+        pai[irmao] = novo;
+        pai[folha] = novo;
+
+        subir(pai[folha]);
+    }
+
+    private void removerFolha(int folha) {
+        if (folha == raiz) {
+            raiz = -1;
+            return;
+        }
+        int p = pai[folha];
+        int avo = pai[p];
+        int irmao = esq[p] == folha ? dir[p] : esq[p];
+        libertar(p);
+        if (avo == -1) {
+            raiz = irmao;
+            pai[irmao] = -1;
+            return;
+        }
+        if (esq[avo] == p) {
+            esq[avo] = irmao;
+        }
+        else {
+            dir[avo] = irmao;
+        }
+        pai[irmao] = avo;
+        subir(avo);
+    }
+
+    /* Melhora com rotações e recalcula caixas e alturas de i até à raiz */
+    private void subir(int i) {
+        while (i != -1) {
+            rodar(i);
+            int a = esq[i];
+            int b = dir[i];
+            altura[i] = 1 + Math.max(altura[a], altura[b]);
+            uniao(i, a, b);
+            i = pai[i];
+        }
+    }
+
+    /* Troca um filho de a com um neto do outro lado se isso diminui o perímetro do nó interno
+       afetado; fica a troca que mais ganha. Mantém os filhos próximos uns dos outros, o que
+       importa mais para as consultas do que só equilibrar alturas. */
+    private void rodar(int a) {
+        int b = esq[a];
+        int c = dir[a];
+        double melhor = 0;
+        int tipo = -1;
+        if (esq[c] != -1) {
+            double pc = perimetro(c);
+            double g = pc - perimetroUniao(b, dir[c]);
+            if (g > melhor) {
+                melhor = g;
+                tipo = 0;
+            }
+            g = pc - perimetroUniao(b, esq[c]);
+            if (g > melhor) {
+                melhor = g;
+                tipo = 1;
+            }
+        }
+        if (esq[b] != -1) {
+            double pb = perimetro(b);
+            double g = pb - perimetroUniao(c, dir[b]);
+            if (g > melhor) {
+                melhor = g;
+                tipo = 2;
+            }
+            g = pb - perimetroUniao(c, esq[b]);
+            if (g > melhor) {
+                tipo = 3;
+            }
+        }
+        switch (tipo) {
+            case 0:
+                trocar(a, b, c, true);
+                break;
+            case 1:
+                trocar(a, b, c, false);
+                break;
+            case 2:
+                trocar(a, c, b, true);
+                break;
+            case 3:
+                trocar(a, c, b, false);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /* O filho x de a troca de lugar com o neto esq[y] (ou dir[y]); y fica com x e o outro neto */
+    private void trocar(int a, int x, int y, boolean netoEsq) {
+        int neto = netoEsq ? esq[y] : dir[y];
+        if (esq[a] == x) {
+            esq[a] = neto;
+        }
+        else {
+            dir[a] = neto;
+        }
+        pai[neto] = a;
+        if (netoEsq) {
+            esq[y] = x;
+        }
+        else {
+            dir[y] = x;
+        }
+        pai[x] = y;
+        uniao(y, esq[y], dir[y]);
+        altura[y] = 1 + Math.max(altura[esq[y]], altura[dir[y]]);
+    }
+
+    private double custoDescer(int filho, int folha) {
+        double juntos = perimetroUniao(filho, folha);
+        return esq[filho] == -1 ? juntos : juntos - perimetro(filho);
+    }
+
+    private double perimetro(int i) {
+        return 2 * ((maxX[i] - minX[i]) + (maxY[i] - minY[i]));
+    }
+
+    private double perimetroUniao(int i, int j) {
+        double w = Math.max(maxX[i], maxX[j]) - Math.min(minX[i], minX[j]);
+        double h = Math.max(maxY[i], maxY[j]) - Math.min(minY[i], minY[j]);
+        return 2 * (w + h);
+    }
+
+    private void uniao(int i, int a, int b) {
+        minX[i] = Math.min(minX[a], minX[b]);
+        minY[i] = Math.min(minY[a], minY[b]);
+        maxX[i] = Math.max(maxX[a], maxX[b]);
+        maxY[i] = Math.max(maxY[a], maxY[b]);
+    }
+
+    private void caixa(int i, Circle c) {
+        double x = c.getCentro().getX();
+        double y = c.getCentro().getY();
+        double r = c.getRaio();
+        minX[i] = x - r;
+        minY[i] = y - r;
+        maxX[i] = x + r;
+        maxY[i] = y + r;
+    }
+
+    private double distanciaCaixa(int i, double x, double y) {
+        double dx = Math.max(0, Math.max(minX[i] - x, x - maxX[i]));
+        double dy = Math.max(0, Math.max(minY[i] - y, y - maxY[i]));
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static double distancia2(Circle c, double x, double y) {
+        double dx = c.getCentro().getX() - x;
+        double dy = c.getCentro().getY() - y;
+        return dx * dx + dy * dy;
+    }
+
+    /* Os nós livres ficam numa lista ligada pelo pai */
+    private int alocar() {
+        if (livre != -1) {
+            int i = livre;
+            livre = pai[i];
+            return i;
+        }
+        if (nNos == pai.length) {
+            int cap = nNos * 2;
+            minX = Arrays.copyOf(minX, cap);
+            minY = Arrays.copyOf(minY, cap);
+            maxX = Arrays.copyOf(maxX, cap);
+            maxY = Arrays.copyOf(maxY, cap);
+            pai = Arrays.copyOf(pai, cap);
+            esq = Arrays.copyOf(esq, cap);
+            dir = Arrays.copyOf(dir, cap);
+            altura = Arrays.copyOf(altura, cap);
+            circulo = Arrays.copyOf(circulo, cap);
+        }
+        return nNos++;
+    }
+
+    private void libertar(int i) {
+        circulo[i] = null;
+        pai[i] = livre;
+        livre = i;
+    }
+
+    /* Pilha de nós de uma travessia; ignora -1 (árvore vazia) */
+    private static class Pilha {
+
+        int[] no = new int[64];
+        int n = 0;
+
+        void push(int i) {
+            if (i == -1) {
+                return;
+            }
+            if (n == no.length) {
+                no = Arrays.copyOf(no, n * 2);
+            }
+            no[n++] = i;
+        }
+
+        int pop() {
+            return no[--n];
+        }
+    }
+
+    /* Heap mínimo de (distância, nó); nós negativos (~folha) são círculos já com distância exata */
+    private static class Heap {
+
+        double[] chave = new double[32];
+        int[] no = new int[32];
+        int n = 0;
+
+        void push(double k, int v) {
+            if (n == chave.length) {
+                chave = Arrays.copyOf(chave, n * 2);
+                no = Arrays.copyOf(no, n * 2);
+            }
+            int i = n++;
+            while (i > 0) {
+                int p = (i - 1) >> 1;
+                if (chave[p] <= k) {
+                    break;
+                }
+                chave[i] = chave[p];
+                no[i] = no[p];
+                i = p;
+            }
+            chave[i] = k;
+            no[i] = v;
+        }
+
+        void pop() {
+            double k = chave[--n];
+            int v = no[n];
+            int i = 0;
+            while (true) {
+                int f = 2 * i + 1;
+                if (f >= n) {
+                    break;
+                }
+                if (f + 1 < n && chave[f + 1] < chave[f]) {
+                    f++;
+                }
+                if (k <= chave[f]) {
+                    break;
+                }
+                chave[i] = chave[f];
+                no[i] = no[f];
+                i = f;
+            }
+            chave[i] = k;
+            no[i] = v;
+        }
+    }
+
+}
@@ -0,0 +1,39 @@
+package aula07;
+
+/* Jogada decidida para o jogador com bola num tick (reutilizada para não alocar por tick) */
+public class Jogada {
+
+    public static final int MANTER = 0;
+    public static final int CONDUZIR = 1;
+    public static final int PASSE = 2;
+    public static final int REMATE = 3;
+
+    private int tipo = MANTER;
+    private int x;
+    private int y;
+
+    public int getTipo() {
+        return tipo;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public void set(int tipo, int x, int y) {
+        this.tipo = tipo;
+        this.x = x;
+        this.y = y;
+    }
+
+    public void limpar() {
+        tipo = MANTER;
+        x = 0;
+        y = 0;
+    }
+
+}
@@ -7,6 +7,7 @@ public class Jogo {
     private Bola bola;
     private Equipa equipa1;
     private Equipa equipa2;
+    private DiarioJogo diario;
  
     public Jogo(int tempo, int tempoDecorrido, Bola bola, Equipa equipa1, Equipa equipa2) {
         this.tempo = tempo;
@@ -44,6 +45,21 @@ public class Jogo {
         this.tempoDecorrido = tempoDecorrido;
     }
 
+    public DiarioJogo getDiario() {
+        return this.diario;
+    }
+
+    public void setDiario(DiarioJogo diario) {
+        this.diario = diario;
+    }
+
+    /* Regista no diário do jogo, se houver */
+    protected void registar(int tipo, int slot, int aux, int x, int y) {
+        if (diario != null) {
+            diario.registar(tipo, slot, tempoDecorrido, aux, x, y);
+        }
+    }
+
 
 
     protected int startTempo() {
@@ -0,0 +1,126 @@
+package aula07;
+
+import java.util.ArrayList;
+
+/* Uma equipa por clube do ClubRankingTable, com plantel gerado e força tirada do point score.
+   Tudo fica em arrays planos: a força por clube num double[] e as posições de todos os
+   jogadores de todas as equipas num só Posicoes (o clube c ocupa os slots
+   [c * JOGADORES, (c + 1) * JOGADORES[, pela ordem de FORMACAO). As Equipa e os Robo só são
+   criados quando alguém os pede, e os Robo são vistas sobre esses slots.
+   O responsável de cada equipa fica com o nome do país do clube.
+   jogar() joga um jogo entre dois clubes com a força de cada um a pesar nos remates e no fim
+   devolve os Robo aos slots da liga, com a formação de antes do jogo. */
+public class LigaRanking {
+
+    public static final String[] FORMACAO = {"GR", "DF", "DF", "MD", "AV"};
+    public static final int JOGADORES = FORMACAO.length;
+
+    /* Posições iniciais de cada lugar da formação (meio campo da esquerda, como no Ex03) */
+    private static final int[] FORMACAO_X = {2, 15, 15, 30, 42};
+    private static final int[] FORMACAO_Y = {23, 16, 34, 25, 25};
+
+    private final ClubRankingTable tabela;
+    private final double[] forca;
+    private final Posicoes posicoes;
+    private final Equipa[] equipas;
+
+    public LigaRanking(ClubRankingTable tabela) {
+        this.tabela = tabela;
+        int n = tabela.tamanho();
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            min = Math.min(min, tabela.pontos(i));
+            max = Math.max(max, tabela.pontos(i));
+        }
+        forca = new double[n];
+        double escala = max > min ? 1.0 / (max - min) : 0;
+        for (int i = 0; i < n; i++) {
+            forca[i] = max > min ? (tabela.pontos(i) - min) * escala : 1;
+        }
+
+        posicoes = new Posicoes(n * JOGADORES);
+        for (int s = 0; s < n * JOGADORES; s++) {
+            posicoes.x[s] = FORMACAO_X[s % JOGADORES];
+            posicoes.y[s] = FORMACAO_Y[s % JOGADORES];
+        }
+        equipas = new Equipa[n];
+    }
+
+    public int tamanho() {
+        return forca.length;
+    }
+
+    public ClubRankingTable getTabela() {
+        return tabela;
+    }
+
+    /* Força do clube em [0, 1]: 0 para o menor point score da tabela, 1 para o maior */
+    public double forca(int clube) {
+        return forca[clube];
+    }
+
+    public Posicoes getPosicoes() {
+        return posicoes;
+    }
+
+    /* Slot do jogador j (0..JOGADORES-1) do clube em getPosicoes() */
+    public static int slot(int clube, int j) {
+        return clube * JOGADORES + j;
+    }
+
+    /* Equipa do clube (linha da tabela), criada na primeira vez que é pedida */
+    public Equipa equipa(int clube) {
+        Equipa e = equipas[clube];
+        if (e == null) {
+            ArrayList<Robo> plantel = new ArrayList<>(JOGADORES);
+            for (int j = 0; j < JOGADORES; j++) {
+                plantel.add(new Robo(idJogador(clube, j), FORMACAO[j], posicoes, slot(clube, j)));
+            }
+            e = new Equipa(tabela.nomeClube(tabela.clube(clube)), tabela.nomePais(tabela.pais(clube)), 0, 0, plantel);
+            equipas[clube] = e;
+        }
+        return e;
+    }
+
+    /* Equipas de todos os clubes, pela ordem da tabela */
+    public ArrayList<Equipa> equipas() {
+        ArrayList<Equipa> lista = new ArrayList<>(tamanho());
+        for (int c = 0; c < tamanho(); c++) {
+            lista.add(equipa(c));
+        }
+        return lista;
+    }
+
+    /* Jogo entre dois clubes (casa no meio campo da esquerda). Os resultados repetem-se com a mesma
+       seed; um clube só pode estar num jogo de cada vez */
+    public MotorJogo jogar(int casa, int fora, long seed) {
+        if (casa == fora) {
+            throw new IllegalArgumentException("Um clube não joga contra si próprio: " + casa);
+        }
+        Jogo jogo = new Jogo(90, 0, new Bola("branca", 45, 25, 0), equipa(casa), equipa(fora));
+
+        /* A formação da equipa visitante vai para o outro meio campo só enquanto o motor a copia */
+        espelhar(fora);
+        MotorJogo motor = new MotorJogo(jogo, new DecisorAleatorio(seed), ~seed);
+        espelhar(fora);
+
+        motor.setForcas(forca[casa], forca[fora]);
+        motor.simular();
+        motor.libertar();
+        return motor;
+    }
+
+    private void espelhar(int clube) {
+        for (int j = 0; j < JOGADORES; j++) {
+            posicoes.x[slot(clube, j)] = MotorJogo.CAMPO_X - posicoes.x[slot(clube, j)];
+        }
+    }
+
+    /* Ids únicos em toda a liga: linha da tabela e lugar na formação */
+    public static String idJogador(int clube, int j) {
+        return clube + "-" + j;
+    }
+
+}
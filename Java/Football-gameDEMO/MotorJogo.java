@@ -0,0 +1,438 @@
+package aula07;
+
+import java.util.ArrayList;
+
+/* Motor de jogo sem consola: avança o Jogo em ticks fixos (TICKS_POR_MINUTO por minuto)
+   e pede as jogadas a um Decisor. A equipa1 ataca a baliza em x = 90 e a equipa2 em x = 0.
+   Bola e jogadores partilham um Posicoes: slot 0 é a bola, depois a equipa1 e a equipa2.
+   Os jogadores ficam numa GrelhaCampo atualizada a cada movimento, e é por ela que se procura o
+   recetor de um passe e o adversário mais próximo da bola.
+   Se o Jogo tiver um DiarioJogo, todas as mudanças de estado ficam lá registadas.
+   Os Robo e a Bola passam a ser vistas sobre o Posicoes do motor; libertar() devolve-os aos
+   stores onde estavam antes do jogo (por exemplo o da LigaRanking). */
+public class MotorJogo {
+
+    public static final int TICKS_POR_MINUTO = 10;
+    public static final int CAMPO_X = 90;
+    public static final int CAMPO_Y = 50;
+    public static final int BALIZA_Y_MIN = 20;
+    public static final int BALIZA_Y_MAX = 27;
+
+    private static final int PASSO_PRESSAO = 2;
+
+    private final Jogo jogo;
+    private final Decisor decisor;
+    private final Jogada jogada = new Jogada();
+    private final ResolvedorRemates remates;
+
+    private final Robo[] jogadores1;
+    private final Robo[] jogadores2;
+    private final Posicoes pos;
+    private final Posicoes formacao;
+    private ReplayJogo replay;
+    private final GrelhaCampo grelha;
+    private int[] vizinhos = new int[16];
+    private final Robo[] porSlot;
+    private final Posicoes[] origem;
+    private final int[] slotOrigem;
+    private double forca1 = 0.5;
+    private double forca2 = 0.5;
+
+    private Robo comBola;
+    private int equipaComBola;
+    private int golos1 = 0;
+    private int golos2 = 0;
+    private int tick = 0;
+
+    public MotorJogo(Jogo jogo, Decisor decisor) {
+        this(jogo, decisor, 0L);
+    }
+
+    /* seed dos remates: com a mesma seed e o mesmo Decisor o jogo repete-se igual */
+    public MotorJogo(Jogo jogo, Decisor decisor, long seed) {
+        this.jogo = jogo;
+        this.decisor = decisor;
+        this.remates = new ResolvedorRemates(seed);
+        jogadores1 = paraArray(jogo.getEquipa1().getjogadores());
+        jogadores2 = paraArray(jogo.getEquipa2().getjogadores());
+        if (jogadores1.length == 0 || jogadores2.length == 0) {
+            throw new IllegalArgumentException("Equipas sem jogadores!");
+        }
+
+        pos = new Posicoes(1 + jogadores1.length + jogadores2.length);
+        porSlot = new Robo[pos.capacidade()];
+        origem = new Posicoes[pos.capacidade()];
+        slotOrigem = new int[pos.capacidade()];
+        origem[0] = jogo.getBola().getPosicoes();
+        slotOrigem[0] = jogo.getBola().getSlot();
+        jogo.getBola().ligar(pos, 0);
+        for (int i = 0; i < jogadores1.length; i++) {
+            ligar(jogadores1[i], 1 + i);
+        }
+        for (int i = 0; i < jogadores2.length; i++) {
+            ligar(jogadores2[i], fimEquipa1() + i);
+        }
+        grelha = pos.indexar(1, pos.capacidade());
+
+        /* As posições atuais dos jogadores são a formação usada nos pontapés de saída */
+        formacao = pos.copia();
+        pontapeSaida(1);
+    }
+
+    public Jogo getJogo() {
+        return jogo;
+    }
+
+    public Bola getBola() {
+        return jogo.getBola();
+    }
+
+    public Robo getComBola() {
+        return comBola;
+    }
+
+    public int getEquipaComBola() {
+        return equipaComBola;
+    }
+
+    public int getGolos1() {
+        return golos1;
+    }
+
+    public int getGolos2() {
+        return golos2;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public Posicoes getPosicoes() {
+        return pos;
+    }
+
+    public GrelhaCampo getGrelha() {
+        return grelha;
+    }
+
+    public Robo getJogador(int slot) {
+        return porSlot[slot];
+    }
+
+    public Robo[] getJogadores(int equipa) {
+        return equipa == 1 ? jogadores1 : jogadores2;
+    }
+
+    public int balizaAlvoX(int equipa) {
+        return equipa == 1 ? CAMPO_X : 0;
+    }
+
+    /* Força de cada equipa em [0, 1] (como LigaRanking.forca); a diferença entre a de quem remata e
+       a de quem defende mexe na probabilidade de golo. Por omissão as duas são 0.5 */
+    public void setForcas(double forca1, double forca2) {
+        if (!(forca1 >= 0 && forca1 <= 1 && forca2 >= 0 && forca2 <= 1)) {
+            throw new IllegalArgumentException("Forças fora de [0, 1]: " + forca1 + ", " + forca2);
+        }
+        this.forca1 = forca1;
+        this.forca2 = forca2;
+    }
+
+    /* Devolve a bola e os jogadores aos stores e slots de antes do jogo, com as posições que lá
+       tinham; a partir daqui o motor já não os mexe e não deve avançar mais */
+    public void libertar() {
+        jogo.getBola().ver(origem[0], slotOrigem[0]);
+        for (int s = 1; s < porSlot.length; s++) {
+            porSlot[s].ver(origem[s], slotOrigem[s]);
+        }
+    }
+
+    public boolean terminado() {
+        return jogo.getTempoDecorrido() >= jogo.getTempo();
+    }
+
+    /* Joga o que falta do jogo e atualiza os golos das equipas */
+    public MotorJogo simular() {
+        while (tick()) {
+        }
+        return this;
+    }
+
+    /* Avança um tick; devolve false quando o jogo acabou */
+    public boolean tick() {
+        if (terminado()) {
+            return false;
+        }
+
+        jogada.limpar();
+        decisor.decidir(this, comBola, jogada);
+        executar(jogada);
+        pressionar();
+
+        tick++;
+        if (tick % TICKS_POR_MINUTO == 0) {
+            jogo.startTempo();
+            jogo.registar(DiarioJogo.TEMPO, 0, 1, pos.x[0], pos.y[0]);
+            if (replay != null) {
+                replay.marcar(this);
+            }
+            if (terminado()) {
+                fimJogo();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void executar(Jogada j) {
+        int x = limitar(j.getX(), CAMPO_X);
+        int y = limitar(j.getY(), CAMPO_Y);
+
+        switch (j.getTipo()) {
+            case Jogada.CONDUZIR:
+                pos.move(comBola.getSlot(), x, y);
+                pos.move(0, x, y);
+                jogo.registar(DiarioJogo.CONDUCAO, comBola.getSlot(), tick % TICKS_POR_MINUTO, x, y);
+                break;
+
+            case Jogada.PASSE:
+                pos.move(0, x, y);
+                int recetor = maisProximo(1, pos.capacidade(), x, y);
+                pos.move(recetor, x, y);
+                darBola(recetor);
+                jogo.registar(DiarioJogo.PASSE, recetor, tick % TICKS_POR_MINUTO, x, y);
+                break;
+
+            case Jogada.REMATE:
+                int baliza = balizaAlvoX(equipaComBola);
+                double distancia = ResolvedorRemates.distanciaBaliza(comBola.getX(), comBola.getY(), baliza);
+                pos.move(0, x, y);
+                jogo.registar(DiarioJogo.REMATE, comBola.getSlot(), tick % TICKS_POR_MINUTO, x, y);
+                if (x == baliza && y >= BALIZA_Y_MIN && y <= BALIZA_Y_MAX && remates.resolver(distancia, vantagem())) {
+                    golo();
+                }
+                else {
+                    /* Bola perdida: fica com o adversário mais próximo */
+                    int r = maisProximo(3 - equipaComBola, x, y);
+                    pos.move(r, x, y);
+                    darBola(r);
+                    jogo.registar(DiarioJogo.MOVIMENTO, r, tick % TICKS_POR_MINUTO, x, y);
+                    jogo.registar(DiarioJogo.POSSE, r, tick % TICKS_POR_MINUTO, x, y);
+                }
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    /* O adversário mais próximo aproxima-se da bola e rouba-a se lá chegar */
+    private void pressionar() {
+        int bx = pos.x[0];
+        int by = pos.y[0];
+        int r = maisProximo(3 - equipaComBola, bx, by);
+
+        int x = pos.x[r] + limitarPasso(bx - pos.x[r]);
+        int y = pos.y[r] + limitarPasso(by - pos.y[r]);
+        pos.move(r, x, y);
+        jogo.registar(DiarioJogo.MOVIMENTO, r, tick % TICKS_POR_MINUTO, x, y);
+
+        if (x == bx && y == by) {
+            darBola(r);
+            jogo.registar(DiarioJogo.POSSE, r, tick % TICKS_POR_MINUTO, x, y);
+        }
+    }
+
+    private void golo() {
+        jogo.registar(DiarioJogo.GOLO, comBola.getSlot(), tick % TICKS_POR_MINUTO, pos.x[0], pos.y[0]);
+        aplicarGolo();
+    }
+
+    private void aplicarGolo() {
+        comBola.marcarGolo();
+        int sofreu;
+        if (equipaComBola == 1) {
+            golos1++;
+            sofreu = 2;
+        }
+        else {
+            golos2++;
+            sofreu = 1;
+        }
+        pontapeSaida(sofreu);
+    }
+
+    /* Jogadores de volta à formação e bola ao centro para a equipa indicada */
+    private void pontapeSaida(int equipa) {
+        int n = pos.capacidade() - 1;
+        System.arraycopy(formacao.x, 1, pos.x, 1, n);
+        System.arraycopy(formacao.y, 1, pos.y, 1, n);
+        pos.refrescar();
+        pos.setX(0, CAMPO_X / 2);
+        pos.setY(0, CAMPO_Y / 2);
+
+        int r = maisProximo(equipa, CAMPO_X / 2, CAMPO_Y / 2);
+        pos.setX(r, CAMPO_X / 2);
+        pos.setY(r, CAMPO_Y / 2);
+        darBola(r);
+    }
+
+    /* Passa a marcar minutos e keyframes no replay (o Jogo deve ter um DiarioJogo) */
+    public void setReplay(ReplayJogo replay) {
+        this.replay = replay;
+        replay.iniciar(this);
+    }
+
+    /* Aplica um evento do diário ao estado do jogo, sem voltar a registá-lo */
+    void aplicar(DiarioJogo.Cursor c) {
+        int s = c.getSlot();
+        int x = c.getX();
+        int y = c.getY();
+        switch (c.getTipo()) {
+            case DiarioJogo.MOVIMENTO:
+                pos.move(s, x, y);
+                break;
+            case DiarioJogo.CONDUCAO:
+                pos.move(s, x, y);
+                pos.move(0, x, y);
+                break;
+            case DiarioJogo.PASSE:
+                pos.move(0, x, y);
+                pos.move(s, x, y);
+                darBola(s);
+                break;
+            case DiarioJogo.REMATE:
+                pos.move(0, x, y);
+                break;
+            case DiarioJogo.POSSE:
+                darBola(s);
+                break;
+            case DiarioJogo.GOLO:
+                darBola(s);
+                aplicarGolo();
+                break;
+            case DiarioJogo.BOLA:
+                pos.setX(0, x);
+                pos.setY(0, y);
+                break;
+            case DiarioJogo.TEMPO:
+                jogo.setTempoDecorrido(jogo.getTempoDecorrido() + c.getAux());
+                tick = (tick / TICKS_POR_MINUTO + c.getAux()) * TICKS_POR_MINUTO;
+                break;
+            default:
+                break;
+        }
+    }
+
+    void guardarEstado(EstadoJogo e) {
+        pos.copiarPara(e.pos);
+        for (int s = 1; s < porSlot.length; s++) {
+            e.golosJogador[s] = porSlot[s].getGolos();
+        }
+        e.golos1 = golos1;
+        e.golos2 = golos2;
+        e.comBola = comBola.getSlot();
+        e.tempoDecorrido = jogo.getTempoDecorrido();
+        e.tick = tick;
+    }
+
+    void reporEstado(EstadoJogo e, Posicoes formacaoInicial) {
+        formacaoInicial.copiarPara(formacao);
+        e.pos.copiarPara(pos);
+        for (int s = 1; s < porSlot.length; s++) {
+            porSlot[s].setGolos(e.golosJogador[s]);
+        }
+        golos1 = e.golos1;
+        golos2 = e.golos2;
+        darBola(e.comBola);
+        jogo.setTempoDecorrido(e.tempoDecorrido);
+        tick = e.tick;
+    }
+
+    Posicoes getFormacao() {
+        return formacao;
+    }
+
+    private void fimJogo() {
+        Equipa e1 = jogo.getEquipa1();
+        Equipa e2 = jogo.getEquipa2();
+        e1.setTotalgolosM(e1.getTotGm() + golos1);
+        e1.setTotalgolosS(e1.getTotGs() + golos2);
+        e2.setTotalgolosM(e2.getTotGm() + golos2);
+        e2.setTotalgolosS(e2.getTotGs() + golos1);
+    }
+
+    private void darBola(int slot) {
+        comBola = porSlot[slot];
+        equipaComBola = slot < fimEquipa1() ? 1 : 2;
+    }
+
+    private double vantagem() {
+        return equipaComBola == 1 ? forca1 - forca2 : forca2 - forca1;
+    }
+
+    private void ligar(Robo r, int slot) {
+        origem[slot] = r.getPosicoes();
+        slotOrigem[slot] = r.getSlot();
+        r.ligar(pos, slot);
+        porSlot[slot] = r;
+    }
+
+    private int fimEquipa1() {
+        return 1 + jogadores1.length;
+    }
+
+    private int maisProximo(int equipa, int x, int y) {
+        if (equipa == 1) {
+            return maisProximo(1, fimEquipa1(), x, y);
+        }
+        return maisProximo(fimEquipa1(), pos.capacidade(), x, y);
+    }
+
+    /* Slot em [de, ate[ mais próximo de (x, y): procura na grelha num raio que vai dobrando até
+       encontrar algum. Tudo o que está fora do raio fica mais longe do que o que está dentro, por
+       isso o melhor lá dentro é o melhor de todos; empata no slot mais baixo, como o
+       Posicoes.maisProximo, que só é usado se ninguém estiver perto do campo */
+    private int maisProximo(int de, int ate, int x, int y) {
+        for (int r = GrelhaCampo.CELULA; ; r *= 2) {
+            int n = grelha.noRaio(x, y, r, vizinhos);
+            if (n > vizinhos.length) {
+                vizinhos = new int[Integer.highestOneBit(n) << 1];
+                n = grelha.noRaio(x, y, r, vizinhos);
+            }
+            int melhor = -1;
+            int melhorD = Integer.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                int s = vizinhos[i];
+                if (s < de || s >= ate) {
+                    continue;
+                }
+                int dx = pos.x[s] - x;
+                int dy = pos.y[s] - y;
+                int d = dx * dx + dy * dy;
+                if (d < melhorD || (d == melhorD && s < melhor)) {
+                    melhor = s;
+                    melhorD = d;
+                }
+            }
+            if (melhor != -1) {
+                return melhor;
+            }
+            if (r >= CAMPO_X + CAMPO_Y) {
+                return pos.maisProximo(de, ate, x, y);
+            }
+        }
+    }
+
+    private static int limitar(int v, int max) {
+        return Math.max(0, Math.min(max, v));
+    }
+
+    private static int limitarPasso(int d) {
+        return Math.max(-PASSO_PRESSAO, Math.min(PASSO_PRESSAO, d));
+    }
+
+    private static Robo[] paraArray(ArrayList<Robo> lista) {
+        return lista.toArray(new Robo[0]);
+    }
+
+}
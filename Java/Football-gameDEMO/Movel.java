@@ -1,48 +1,76 @@
 package aula07;
 
+/* Vista sobre um slot de um Posicoes; sem store partilhado cada Movel tem o seu */
 public class Movel {
 
-    private int x;
-    private int y;
-    private double dist = 0;
+    private Posicoes pos;
+    private int slot;
 
     public Movel(int x, int y, double dist) {
-        this.x = x;
-        this.y = y;
-        this.dist = dist;
+        pos = new Posicoes(1);
+        slot = 0;
+        pos.setX(0, x);
+        pos.setY(0, y);
+        pos.setDist(0, dist);
+    }
+
+    /* Vista sobre um slot já preenchido de um store partilhado */
+    public Movel(Posicoes p, int s) {
+        pos = p;
+        slot = s;
     }
 
     public int getX() {
-        return x;
+        return pos.getX(slot);
     }
 
     public int getY() {
-        return y;
+        return pos.getY(slot);
     }
 
     public double getDist() {
-        return dist;
+        return pos.getDist(slot);
+    }
+
+    public Posicoes getPosicoes() {
+        return pos;
+    }
+
+    public int getSlot() {
+        return slot;
     }
 
 
     public void setX(int x) {
-        this.x = x;
+        pos.setX(slot, x);
     }
 
     public void setY(int y) {
-        this.y = y;
+        pos.setY(slot, y);
     }
 
     public void setDist(double d) {
-        dist = d;
+        pos.setDist(slot, d);
     }
 
+    /* Passa a usar o slot indicado de outro store, levando consigo o estado atual */
+    public void ligar(Posicoes p, int s) {
+        p.setX(s, getX());
+        p.setY(s, getY());
+        p.setDist(s, getDist());
+        pos = p;
+        slot = s;
+    }
 
-    public void move(int newX, int newY) {
-        this.x = newX;
-        this.y = newY;
+    /* Volta a ser vista sobre um slot de outro store tal como ele está, sem levar o estado atual */
+    public void ver(Posicoes p, int s) {
+        pos = p;
+        slot = s;
+    }
 
-        this.dist += Math.sqrt(newX * newX + newY * newY);
+
+    public void move(int newX, int newY) {
+        pos.move(slot, newX, newY);
     }
 
 }
@@ -0,0 +1,85 @@
+package aula07;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+
+/* Lista de jogadores indexada por id: procura em O(1) e remoção por troca com o último
+   (a ordem da lista não é preservada nas remoções). Os ids têm de ser únicos. */
+public class Plantel implements Iterable<Robo> {
+
+    private final ArrayList<Robo> jogadores;
+    private final HashMap<String, Integer> indice;
+
+    public Plantel() {
+        this(new ArrayList<>());
+    }
+
+    public Plantel(ArrayList<Robo> jogadores) {
+        this.jogadores = jogadores;
+        indice = new HashMap<>(Math.max(16, jogadores.size() * 2));
+        for (int i = 0; i < jogadores.size(); i++) {
+            if (indice.put(jogadores.get(i).getId(), i) != null) {
+                throw new IllegalArgumentException("Id repetido: " + jogadores.get(i).getId());
+            }
+        }
+    }
+
+    public int size() {
+        return jogadores.size();
+    }
+
+    public Robo get(int i) {
+        return jogadores.get(i);
+    }
+
+    public Robo get(String id) {
+        Integer i = indice.get(id);
+        return i == null ? null : jogadores.get(i);
+    }
+
+    /* Posição do jogador na lista, ou -1 */
+    public int indiceDe(String id) {
+        Integer i = indice.get(id);
+        return i == null ? -1 : i;
+    }
+
+    public boolean contem(String id) {
+        return indice.containsKey(id);
+    }
+
+    public boolean add(Robo r) {
+        if (indice.putIfAbsent(r.getId(), jogadores.size()) != null) {
+            return false;
+        }
+        jogadores.add(r);
+        return true;
+    }
+
+    public boolean remove(Robo r) {
+        Integer i = indice.get(r.getId());
+        if (i == null || jogadores.get(i) != r) {
+            return false;
+        }
+        indice.remove(r.getId());
+
+        int ultimo = jogadores.size() - 1;
+        Robo fim = jogadores.remove(ultimo);
+        if (i != ultimo) {
+            jogadores.set(i, fim);
+            indice.put(fim.getId(), i);
+        }
+        return true;
+    }
+
+    /* Lista usada pelo plantel; alterar diretamente deixa o índice desatualizado */
+    public ArrayList<Robo> lista() {
+        return jogadores;
+    }
+
+    @Override
+    public Iterator<Robo> iterator() {
+        return jogadores.iterator();
+    }
+
+}
@@ -0,0 +1,110 @@
+package aula07;
+
+/* Posições (x, y) e distância percorrida de vários Movel guardadas em arrays primitivos.
+   Cada Movel é uma vista sobre um slot; um estado inteiro copia-se com três arraycopy. */
+public class Posicoes {
+
+    final int[] x;
+    final int[] y;
+    final double[] dist;
+    private GrelhaCampo grelha;
+
+    public Posicoes(int capacidade) {
+        x = new int[capacidade];
+        y = new int[capacidade];
+        dist = new double[capacidade];
+    }
+
+    public int capacidade() {
+        return x.length;
+    }
+
+    /* Passa a manter uma GrelhaCampo com os slots [de, ate[ */
+    public GrelhaCampo indexar(int de, int ate) {
+        grelha = new GrelhaCampo(this, de, ate);
+        return grelha;
+    }
+
+    public GrelhaCampo getGrelha() {
+        return grelha;
+    }
+
+    /* Depois de escrever diretamente nos arrays */
+    void refrescar() {
+        if (grelha != null) {
+            for (int i = 0; i < x.length; i++) {
+                grelha.atualizar(i);
+            }
+        }
+    }
+
+    public int getX(int slot) {
+        return x[slot];
+    }
+
+    public int getY(int slot) {
+        return y[slot];
+    }
+
+    public double getDist(int slot) {
+        return dist[slot];
+    }
+
+    public void setX(int slot, int v) {
+        x[slot] = v;
+        if (grelha != null) {
+            grelha.atualizar(slot);
+        }
+    }
+
+    public void setY(int slot, int v) {
+        y[slot] = v;
+        if (grelha != null) {
+            grelha.atualizar(slot);
+        }
+    }
+
+    public void setDist(int slot, double d) {
+        dist[slot] = d;
+    }
+
+    public void move(int slot, int newX, int newY) {
+        x[slot] = newX;
+        y[slot] = newY;
+
+        dist[slot] += Math.sqrt(newX * newX + newY * newY);
+        if (grelha != null) {
+            grelha.atualizar(slot);
+        }
+    }
+
+    /* Slot em [de, ate[ mais próximo de (px, py); empata no primeiro */
+    public int maisProximo(int de, int ate, int px, int py) {
+        int melhor = de;
+        int melhorD = Integer.MAX_VALUE;
+        for (int i = de; i < ate; i++) {
+            int dx = x[i] - px;
+            int dy = y[i] - py;
+            int d = dx * dx + dy * dy;
+            if (d < melhorD) {
+                melhor = i;
+                melhorD = d;
+            }
+        }
+        return melhor;
+    }
+
+    public void copiarPara(Posicoes dst) {
+        System.arraycopy(x, 0, dst.x, 0, x.length);
+        System.arraycopy(y, 0, dst.y, 0, y.length);
+        System.arraycopy(dist, 0, dst.dist, 0, dist.length);
+        dst.refrescar();
+    }
+
+    public Posicoes copia() {
+        Posicoes p = new Posicoes(x.length);
+        copiarPara(p);
+        return p;
+    }
+
+}
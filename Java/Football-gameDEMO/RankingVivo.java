@@ -0,0 +1,163 @@
+package aula07;
+
+import java.util.Arrays;
+
+/* Ranking que se mantém atualizado à medida que os pontos dos clubes mudam, sem reordenar tudo.
+   Uma árvore de Fenwick conta quantos clubes há em cada valor de pontos (um balde por ponto
+   inteiro) e cada balde guarda os seus clubes num array, com o índice de cada clube no seu balde
+   em noBalde: tirar um clube é trocá-lo com o último e o k-ésimo do balde é um acesso direto.
+   Mudar os pontos de um clube, o ranking de um clube e o clube num lugar são O(log P), com P a
+   amplitude de pontos coberta. Se uns pontos saem dessa amplitude a árvore é refeita à volta dos
+   pontos que existem nesse momento, com folga para os dois lados (raro).
+   rank() é o ranking de competição (empatados ficam com o mesmo lugar, o melhor);
+   clubeNoLugar() dá um clube diferente para cada lugar, com os empatados por ordem arbitrária. */
+public class RankingVivo {
+
+    private static final int[] VAZIO = new int[0];
+
+    private final int[] pontos;
+    private final int[] noBalde;
+
+    private int base;
+    private int m;
+    private int[] arvore;
+    private int[][] balde;
+    private int[] ocupados;
+
+    public RankingVivo(int[] pontosIniciais) {
+        pontos = pontosIniciais.clone();
+        noBalde = new int[pontos.length];
+        reconstruir();
+    }
+
+    public static RankingVivo de(ClubRankingTable tabela) {
+        int[] pts = new int[tabela.tamanho()];
+        for (int i = 0; i < pts.length; i++) {
+            pts[i] = tabela.pontos(i);
+        }
+        return new RankingVivo(pts);
+    }
+
+    public int tamanho() {
+        return pontos.length;
+    }
+
+    public int pontos(int clube) {
+        return pontos[clube];
+    }
+
+    public void definir(int clube, int p) {
+        int antigo = pontos[clube];
+        if (p == antigo) {
+            return;
+        }
+        if (p < base || p >= base + m) {
+            pontos[clube] = p;
+            reconstruir();
+            return;
+        }
+        retirar(clube, antigo - base);
+        somar(antigo - base, -1);
+        pontos[clube] = p;
+        inserir(clube, p - base);
+        somar(p - base, 1);
+    }
+
+    /* 1 + número de clubes com mais pontos */
+    public int rank(int clube) {
+        return pontos.length - prefixo(pontos[clube] - base) + 1;
+    }
+
+    /* Quantos clubes têm pelo menos p pontos */
+    public int comPeloMenos(int p) {
+        if (p <= base) {
+            return pontos.length;
+        }
+        if (p >= base + m) {
+            return 0;
+        }
+        return pontos.length - prefixo(p - base - 1);
+    }
+
+    /* Clube no lugar (1 = mais pontos) */
+    public int clubeNoLugar(int lugar) {
+        if (lugar < 1 || lugar > pontos.length) {
+            throw new IndexOutOfBoundsException("Lugar " + lugar + " de " + pontos.length);
+        }
+        /* O lugar-ésimo maior é o k-ésimo menor; desce pela árvore à procura do balde */
+        int k = pontos.length - lugar + 1;
+        int pos = 0;
+        for (int passo = m; passo > 0; passo >>= 1) {
+            if (pos + passo <= m && arvore[pos + passo] < k) {
+                pos += passo;
+                k -= arvore[pos];
+            }
+        }
+        return balde[pos][k - 1];
+    }
+
+    /* Clubes com valor em [0, m[ depois de base; Fenwick 1-based: o balde i está em i + 1 */
+    private int prefixo(int i) {
+        int s = 0;
+        for (int j = i + 1; j > 0; j -= j & -j) {
+            s += arvore[j];
+        }
+        return s;
+    }
+
+    private void somar(int i, int v) {
+        for (int j = i + 1; j <= m; j += j & -j) {
+            arvore[j] += v;
+        }
+    }
+
+    /* Amplitude nova à volta do menor e do maior pontos atuais, com folga para os dois lados;
+       constrói em O(n + P) */
+    private void reconstruir() {
+        int min = 0;
+        int max = 0;
+        if (pontos.length > 0) {
+            min = Integer.MAX_VALUE;
+            max = Integer.MIN_VALUE;
+            for (int p : pontos) {
+                min = Math.min(min, p);
+                max = Math.max(max, p);
+            }
+        }
+        int amplitude = max - min + 1;
+        m = Integer.highestOneBit(Math.max(2, amplitude * 2 - 1)) << 1;
+        base = min - (m - amplitude) / 2;
+        arvore = new int[m + 1];
+        balde = new int[m][];
+        ocupados = new int[m];
+        Arrays.fill(balde, VAZIO);
+        for (int c = 0; c < pontos.length; c++) {
+            int i = pontos[c] - base;
+            arvore[i + 1]++;
+            inserir(c, i);
+        }
+        for (int j = 1; j <= m; j++) {
+            int pai = j + (j & -j);
+            if (pai <= m) {
+                arvore[pai] += arvore[j];
+            }
+        }
+    }
+
+    private void inserir(int c, int b) {
+        int n = ocupados[b]++;
+        if (n == balde[b].length) {
+            balde[b] = Arrays.copyOf(balde[b], Math.max(2, n * 2));
+        }
+        balde[b][n] = c;
+        noBalde[c] = n;
+    }
+
+    /* Troca o clube com o último do balde */
+    private void retirar(int c, int b) {
+        int ultimo = balde[b][--ocupados[b]];
+        balde[b][noBalde[c]] = ultimo;
+        noBalde[ultimo] = noBalde[c];
+    }
+
+}
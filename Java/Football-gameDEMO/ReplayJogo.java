@@ -0,0 +1,105 @@
+package aula07;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/* Índice minuto -> posição no DiarioJogo, mais keyframes do estado a cada minutosPorKeyframe.
+   Para ir a um minuto repõe-se o keyframe anterior e aplicam-se só os eventos que faltam,
+   sem voltar ao pontapé de saída. */
+public class ReplayJogo {
+
+    public static final int MINUTOS_POR_KEYFRAME = 5;
+
+    private final DiarioJogo diario;
+    private final int minutosPorKeyframe;
+    private final ArrayList<EstadoJogo> keyframes = new ArrayList<>();
+    private Posicoes formacao;
+
+    private int minutoInicial;
+    private int minutos = 0;
+    private int[] offset = new int[128];
+    private int[] baseX = new int[128];
+    private int[] baseY = new int[128];
+
+    public ReplayJogo(DiarioJogo diario) {
+        this(diario, MINUTOS_POR_KEYFRAME);
+    }
+
+    public ReplayJogo(DiarioJogo diario, int minutosPorKeyframe) {
+        this.diario = diario;
+        this.minutosPorKeyframe = minutosPorKeyframe;
+    }
+
+    public int getMinutoInicial() {
+        return minutoInicial;
+    }
+
+    /* Último minuto indexado */
+    public int getMinutoFinal() {
+        return minutoInicial + minutos - 1;
+    }
+
+    /* Chamado pelo MotorJogo.setReplay */
+    void iniciar(MotorJogo motor) {
+        formacao = motor.getFormacao().copia();
+        minutoInicial = motor.getJogo().getTempoDecorrido();
+        minutos = 0;
+        keyframes.clear();
+        marcar(motor);
+    }
+
+    /* Chamado pelo MotorJogo no início de cada minuto */
+    void marcar(MotorJogo motor) {
+        if (minutos == offset.length) {
+            offset = Arrays.copyOf(offset, minutos * 2);
+            baseX = Arrays.copyOf(baseX, minutos * 2);
+            baseY = Arrays.copyOf(baseY, minutos * 2);
+        }
+        offset[minutos] = diario.tamanho();
+        baseX[minutos] = diario.getUltimoX();
+        baseY[minutos] = diario.getUltimoY();
+
+        if (minutos % minutosPorKeyframe == 0) {
+            EstadoJogo e = new EstadoJogo(motor.getPosicoes().capacidade());
+            motor.guardarEstado(e);
+            keyframes.add(e);
+        }
+        minutos++;
+    }
+
+    /* Deixa o motor (das mesmas equipas) no estado do início do minuto indicado */
+    public void procurar(MotorJogo motor, int minuto) {
+        int m = indice(minuto);
+        int k = m / minutosPorKeyframe;
+        motor.reporEstado(keyframes.get(k), formacao);
+        aplicar(motor, k * minutosPorKeyframe, m);
+    }
+
+    /* Avança o motor, já num minuto indexado, até ao início do minuto indicado */
+    public void reproduzir(MotorJogo motor, int ateMinuto) {
+        int de = indice(motor.getJogo().getTempoDecorrido());
+        int ate = indice(ateMinuto);
+        if (ate < de) {
+            procurar(motor, ateMinuto);
+            return;
+        }
+        aplicar(motor, de, ate);
+    }
+
+    private void aplicar(MotorJogo motor, int de, int ate) {
+        DiarioJogo.Cursor c = diario.cursor(offset[de], baseX[de], baseY[de]);
+        int fim = offset[ate];
+        while (c.posicao() < fim && c.proximo()) {
+            motor.aplicar(c);
+        }
+    }
+
+    private int indice(int minuto) {
+        int m = minuto - minutoInicial;
+        if (m < 0 || m >= minutos) {
+            throw new IllegalArgumentException("Minuto fora do replay: " + minuto);
+        }
+        return m;
+    }
+
+}
@@ -0,0 +1,82 @@
+package aula07;
+
+import java.util.SplittableRandom;
+
+/* Decide se os remates são golo com o modelo de distância (o mesmo que o Ex03 mostra na consola).
+   Cada jogo deve ter o seu resolvedor (seed própria ou split()), assim os resultados
+   não dependem da ordem em que as threads correm. */
+public class ResolvedorRemates {
+
+    public static final double BALIZA_Y_CENTRO = (MotorJogo.BALIZA_Y_MIN + MotorJogo.BALIZA_Y_MAX) / 2.0;
+
+    private final SplittableRandom rnd;
+
+    public ResolvedorRemates(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private ResolvedorRemates(SplittableRandom rnd) {
+        this.rnd = rnd;
+    }
+
+    /* Resolvedor independente, para outro jogo ou outra thread */
+    public ResolvedorRemates split() {
+        return new ResolvedorRemates(rnd.split());
+    }
+
+    /* Probabilidade de golo entre 0 e 1 */
+    public static double probabilidade(double distancia) {
+        return percentagem(distancia) / 100;
+    }
+
+    /* Probabilidade de golo em percentagem: 100 junto à baliza e menos 0.5 por metro */
+    public static double percentagem(double distancia) {
+        double intercepto = 100; // Probabilidade máxima em metros
+        double inclinacao = -0.5; // Taxa de queda da probabilidade por metro
+
+        // Calcular a probabilidade de acordo com a função linear: probabilidade = intercepto + inclinação * distância
+        double probabilidade = intercepto + inclinacao * distancia;
+
+        // Garantir que a probabilidade esteja dentro do intervalo [0, 100]
+        return Math.max(0, Math.min(100, probabilidade));
+    }
+
+    public static double distanciaBaliza(int x, int y, int balizaX) {
+        double dx = x - balizaX;
+        double dy = y - BALIZA_Y_CENTRO;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    public boolean resolver(double distancia) {
+        return rnd.nextDouble() < probabilidade(distancia);
+    }
+
+    /* Com vantagem (força de quem remata menos força de quem defende, em [-1, 1]) a probabilidade
+       é multiplicada por 1 + vantagem; com vantagem 0 é igual ao resolver(distancia) */
+    public boolean resolver(double distancia, double vantagem) {
+        return rnd.nextDouble() < Math.min(1, probabilidade(distancia) * (1 + vantagem));
+    }
+
+    /* Resolve n remates de uma vez; golo[i] fica com o resultado e devolve o número de golos */
+    public int resolver(double[] distancias, int n, boolean[] golo) {
+        int golos = 0;
+        for (int i = 0; i < n; i++) {
+            boolean g = rnd.nextDouble() < probabilidade(distancias[i]);
+            golo[i] = g;
+            golos += g ? 1 : 0;
+        }
+        return golos;
+    }
+
+    /* O mesmo para remates feitos de (x[i], y[i]) à baliza em balizaX */
+    public int resolver(int[] x, int[] y, int balizaX, int n, boolean[] golo) {
+        int golos = 0;
+        for (int i = 0; i < n; i++) {
+            boolean g = rnd.nextDouble() < probabilidade(distanciaBaliza(x[i], y[i], balizaX));
+            golo[i] = g;
+            golos += g ? 1 : 0;
+        }
+        return golos;
+    }
+
+}
@@ -0,0 +1,101 @@
+package aula07;
+
+/* Resumo de um lote de jogos: classificação por equipa (index da lista simulada) */
+public class ResumoLote {
+
+    private final int[] jogos;
+    private final int[] vitorias;
+    private final int[] empates;
+    private final int[] derrotas;
+    private final int[] golosM;
+    private final int[] golosS;
+    private int totalJogos = 0;
+    private int totalGolos = 0;
+
+    public ResumoLote(int nEquipas) {
+        jogos = new int[nEquipas];
+        vitorias = new int[nEquipas];
+        empates = new int[nEquipas];
+        derrotas = new int[nEquipas];
+        golosM = new int[nEquipas];
+        golosS = new int[nEquipas];
+    }
+
+    public void registar(int casa, int fora, int golosCasa, int golosFora) {
+        jogos[casa]++;
+        jogos[fora]++;
+        golosM[casa] += golosCasa;
+        golosS[casa] += golosFora;
+        golosM[fora] += golosFora;
+        golosS[fora] += golosCasa;
+
+        if (golosCasa > golosFora) {
+            vitorias[casa]++;
+            derrotas[fora]++;
+        }
+        else if (golosCasa < golosFora) {
+            vitorias[fora]++;
+            derrotas[casa]++;
+        }
+        else {
+            empates[casa]++;
+            empates[fora]++;
+        }
+        totalJogos++;
+        totalGolos += golosCasa + golosFora;
+    }
+
+    public void juntar(ResumoLote o) {
+        for (int i = 0; i < jogos.length; i++) {
+            jogos[i] += o.jogos[i];
+            vitorias[i] += o.vitorias[i];
+            empates[i] += o.empates[i];
+            derrotas[i] += o.derrotas[i];
+            golosM[i] += o.golosM[i];
+            golosS[i] += o.golosS[i];
+        }
+        totalJogos += o.totalJogos;
+        totalGolos += o.totalGolos;
+    }
+
+    public int getNumEquipas() {
+        return jogos.length;
+    }
+
+    public int getTotalJogos() {
+        return totalJogos;
+    }
+
+    public int getTotalGolos() {
+        return totalGolos;
+    }
+
+    public int getJogos(int equipa) {
+        return jogos[equipa];
+    }
+
+    public int getVitorias(int equipa) {
+        return vitorias[equipa];
+    }
+
+    public int getEmpates(int equipa) {
+        return empates[equipa];
+    }
+
+    public int getDerrotas(int equipa) {
+        return derrotas[equipa];
+    }
+
+    public int getGolosM(int equipa) {
+        return golosM[equipa];
+    }
+
+    public int getGolosS(int equipa) {
+        return golosS[equipa];
+    }
+
+    public int getPontos(int equipa) {
+        return 3 * vitorias[equipa] + empates[equipa];
+    }
+
+}
@@ -14,6 +14,13 @@ public class Robo extends Movel {
         this.golos = golos;
     }
 
+    /* Jogador sobre um slot de um Posicoes partilhado (sem store próprio) */
+    public Robo(String id, String position, Posicoes pos, int slot) {
+        super(pos, slot);
+        this.id = id;
+        this.position = position;
+    }
+
     public String getId() {
         return this.id;
     }
@@ -39,6 +46,10 @@ public class Robo extends Movel {
         return ++ this.golos;
     }
 
+    public Robo copia() {
+        return new Robo(id, position, golos, getX(), getY(), getDist());
+    }
+
 
     @Override
     public String toString() {
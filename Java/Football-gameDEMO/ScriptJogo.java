@@ -0,0 +1,247 @@
+package aula07;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/* Corre comandos do Ex03 sem menus nem prompts, um por linha:
+     equipa <nome> <responsável>
+     jogador <equipa> <id> <GR|DF|MD|AV> <x> <y>
+     remover <equipa> <index do jogador>
+     listar
+     jogo <equipa1> <equipa2> [seed]
+     passe|remate|conduzir <x> <y>     (um tick com essa jogada do jogador com bola)
+     tempo <minutos>                    (ticks sem jogadas)
+     simular                            (resto do jogo com o DecisorAleatorio)
+     fim
+   Linhas vazias e começadas por # são ignoradas. A saída é escrita em buffer. */
+public class ScriptJogo {
+
+    private final PrintWriter out;
+    private final String[] tok = new String[8];
+
+    private MotorJogo motor;
+    private DecisorScript decisor;
+    private long seed;
+    private Robo[] emJogo;
+    private int[] inicioX;
+    private int[] inicioY;
+
+    public ScriptJogo(PrintWriter out) {
+        this.out = out;
+    }
+
+    /* fonte: caminho do ficheiro ou "-" para o System.in */
+    public static void correr(String fonte) throws IOException {
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16));
+        try (BufferedReader in = fonte.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Path.of(fonte), StandardCharsets.UTF_8)) {
+            new ScriptJogo(out).correr(in);
+        }
+        out.flush();
+    }
+
+    /* Devolve o número de comandos executados */
+    public int correr(BufferedReader in) throws IOException {
+        int comandos = 0;
+        int nLinha = 0;
+        String linha;
+        while ((linha = in.readLine()) != null) {
+            nLinha++;
+            int n = partir(linha);
+            if (n == 0 || tok[0].charAt(0) == '#') {
+                continue;
+            }
+            try {
+                if (executar(n)) {
+                    comandos++;
+                }
+                else {
+                    out.printf("linha %d: comando inválido: %s\n", nLinha, linha);
+                }
+            } catch (RuntimeException e) {
+                out.printf("linha %d: %s\n", nLinha, e.getMessage());
+            }
+        }
+        if (motor != null) {
+            fim();
+        }
+        return comandos;
+    }
+
+    private boolean executar(int n) {
+        switch (tok[0]) {
+            case "equipa":
+                if (n < 3) {
+                    return false;
+                }
+                Ex03.criarEquipa(tok[1], tok[2]);
+                return true;
+
+            case "jogador":
+                if (n < 6) {
+                    return false;
+                }
+                Robo r = Ex03.adicionarJogador(equipa(tok[1]), tok[2], tok[3].toUpperCase(), inteiro(tok[4]), inteiro(tok[5]));
+                if (r == null) {
+                    out.printf("Robo %s não adicionado!\n", tok[2]);
+                }
+                return true;
+
+            case "remover":
+                if (n < 3) {
+                    return false;
+                }
+                Ex03.removerJogador(equipa(tok[1]), inteiro(tok[2]));
+                return true;
+
+            case "listar":
+                for (Equipa e : Ex03.getEquipas()) {
+                    out.printf("%s %s %d %d %d\n", e.getNome(), e.getResponsavel(), e.getjogadores().size(), e.getTotGm(), e.getTotGs());
+                }
+                return true;
+
+            case "jogo":
+                if (n < 3) {
+                    return false;
+                }
+                if (motor != null) {
+                    fim();
+                }
+                iniciar(equipa(tok[1]), equipa(tok[2]), n > 3 ? Long.parseLong(tok[3]) : 0L);
+                return true;
+
+            case "passe":
+                return jogada(n, Jogada.PASSE);
+
+            case "remate":
+                return jogada(n, Jogada.REMATE);
+
+            case "conduzir":
+                return jogada(n, Jogada.CONDUZIR);
+
+            case "tempo":
+                if (n < 2 || motor == null) {
+                    return false;
+                }
+                for (int t = inteiro(tok[1]) * MotorJogo.TICKS_POR_MINUTO; t > 0 && motor.tick(); t--) {
+                }
+                return true;
+
+            case "simular":
+                if (motor == null) {
+                    return false;
+                }
+                decisor.setAutomatico(new DecisorAleatorio(seed));
+                motor.simular();
+                decisor.setAutomatico(null);
+                return true;
+
+            case "fim":
+                if (motor == null) {
+                    return false;
+                }
+                fim();
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    private void iniciar(int e1, int e2, long s) {
+        if (e1 == e2) {
+            throw new IllegalArgumentException("Uma equipa não joga contra si própria: " + e1);
+        }
+        Equipa equipa1 = Ex03.getEquipas().get(e1);
+        Equipa equipa2 = Ex03.getEquipas().get(e2);
+        if (equipa1.getjogadores().size() < 3 || equipa2.getjogadores().size() < 3) {
+            throw new IllegalArgumentException("Equipas sem jogadores suficientes! (min: 3)");
+        }
+        seed = s;
+        guardarPosicoes(equipa1, equipa2);
+        Ex03.inGameXY(e2);
+        decisor = new DecisorScript();
+        Jogo jogo = new Jogo(90, 0, new Bola("branca", 45, 25, 0), equipa1, equipa2);
+        /* Seed diferente para os remates, para não repetirem a sequência das decisões */
+        motor = new MotorJogo(jogo, decisor, ~s);
+    }
+
+    private boolean jogada(int n, int tipo) {
+        if (n < 3 || motor == null) {
+            return false;
+        }
+        decisor.proxima(tipo, inteiro(tok[1]), inteiro(tok[2]));
+        motor.tick();
+        return true;
+    }
+
+    private void fim() {
+        Jogo jogo = motor.getJogo();
+        out.printf("| %s | %d - %d | %s | == %02d'\n", jogo.getEquipa1().getNome(), motor.getGolos1(), motor.getGolos2(),
+                jogo.getEquipa2().getNome(), jogo.getTempoDecorrido());
+        /* Os jogadores deixam de ser vistas do motor e as duas equipas voltam às posições de antes
+           do jogo (a equipa2 também foi mudada de meio campo antes do motor a copiar) */
+        motor.libertar();
+        for (int i = 0; i < emJogo.length; i++) {
+            emJogo[i].setX(inicioX[i]);
+            emJogo[i].setY(inicioY[i]);
+        }
+        motor = null;
+        decisor = null;
+        emJogo = null;
+    }
+
+    private void guardarPosicoes(Equipa equipa1, Equipa equipa2) {
+        int n1 = equipa1.getjogadores().size();
+        emJogo = new Robo[n1 + equipa2.getjogadores().size()];
+        inicioX = new int[emJogo.length];
+        inicioY = new int[emJogo.length];
+        for (int i = 0; i < emJogo.length; i++) {
+            Robo r = i < n1 ? equipa1.getjogadores().get(i) : equipa2.getjogadores().get(i - n1);
+            emJogo[i] = r;
+            inicioX[i] = r.getX();
+            inicioY[i] = r.getY();
+        }
+    }
+
+    private int equipa(String s) {
+        int i = inteiro(s);
+        if (i < 0 || i >= Ex03.getEquipas().size()) {
+            throw new IllegalArgumentException("Index de equipa inválido: " + s);
+        }
+        return i;
+    }
+
+    private static int inteiro(String s) {
+        return Integer.parseInt(s);
+    }
+
+    /* Parte a linha por espaços para tok; devolve o número de tokens */
+    private int partir(String linha) {
+        int n = 0;
+        int i = 0;
+        int len = linha.length();
+        while (i < len && n < tok.length) {
+            while (i < len && linha.charAt(i) <= ' ') {
+                i++;
+            }
+            int ini = i;
+            while (i < len && linha.charAt(i) > ' ') {
+                i++;
+            }
+            if (i > ini) {
+                tok[n++] = linha.substring(ini, i);
+            }
+        }
+        return n;
+    }
+
+}
@@ -0,0 +1,223 @@
+package aula07;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+/* Época de todos contra todos entre todos os clubes de um ClubRankingTable, com resultados e
+   atualização de pontos ao estilo Elo. A força de cada clube é fixa durante a época: point score
+   mais FORMA por ponto de forma (point score - previous point scored). As probabilidades de cada
+   jogo saem só dessas forças; o rating publicado começa no point score e vai somando os deltas
+   Elo. Como cada clube joga n - 1 jogos, o k de cada jogo é k * JOGOS_REFERENCIA / (n - 1): a
+   época toda mexe no rating tanto como uma liga de JOGOS_REFERENCIA jogos com esse k, em vez de
+   o transformar num passeio aleatório.
+   Cada jornada (método do círculo) tem cada clube no máximo uma vez, por isso os jogos de uma
+   jornada correm em paralelo a mexer em posições diferentes dos arrays, sem locks.
+   O resultado de cada jogo sai de um número aleatório tirado só da seed e do número do jogo
+   (como no SimuladorLote): a mesma seed dá a mesma época com qualquer número de threads.
+   Probabilidades: empate = EMPATE * 2 * min(E, 1 - E) e vitória = E - empate / 2, o que mantém
+   a pontuação esperada igual à expectativa Elo E. */
+public class SimulacaoElo {
+
+    public static final double K = 20;
+    public static final double EMPATE = 0.5;
+    public static final double FORMA = 0.5;
+    public static final int JOGOS_REFERENCIA = 38;
+
+    private final ClubRankingTable tabela;
+    private final double k;
+    private final double[] rating;
+    private final double[] forca;
+    final int[] vitorias;
+    final int[] empates;
+    final int[] derrotas;
+    private long jogos = 0;
+    private RankingVivo vivo;
+
+    public SimulacaoElo(ClubRankingTable tabela) {
+        this(tabela, K);
+    }
+
+    /* k = pontos em jogo por jogo numa liga de JOGOS_REFERENCIA jogos (ver acima) */
+    public SimulacaoElo(ClubRankingTable tabela, double k) {
+        this.tabela = tabela;
+        int n = tabela.tamanho();
+        this.k = n > 1 ? k * JOGOS_REFERENCIA / (n - 1) : k;
+        rating = new double[n];
+        forca = new double[n];
+        for (int i = 0; i < n; i++) {
+            rating[i] = tabela.pontos(i);
+            forca[i] = tabela.pontos(i) + FORMA * (tabela.pontos(i) - tabela.pontosAnteriores(i));
+        }
+        vitorias = new int[n];
+        empates = new int[n];
+        derrotas = new int[n];
+    }
+
+    public int tamanho() {
+        return rating.length;
+    }
+
+    public double rating(int clube) {
+        return rating[clube];
+    }
+
+    public long jogos() {
+        return jogos;
+    }
+
+    public int vitorias(int clube) {
+        return vitorias[clube];
+    }
+
+    public int empates(int clube) {
+        return empates[clube];
+    }
+
+    public int derrotas(int clube) {
+        return derrotas[clube];
+    }
+
+    /* Número de jornadas de uma volta (com um clube de folga por jornada se forem ímpares) */
+    public int jornadas() {
+        int m = participantes();
+        return m < 2 ? 0 : m - 1;
+    }
+
+    /* Uma volta completa: cada clube joga uma vez com cada um dos outros */
+    public void temporada(long seed) {
+        for (int r = 0; r < jornadas(); r++) {
+            jornada(r, seed);
+        }
+    }
+
+    public void jornada(int r, long seed) {
+        int m = participantes();
+        int porJornada = m / 2;
+        long base = (long) r * porJornada;
+        IntStream.range(0, porJornada).parallel().forEach(i -> {
+            int a = naPosicao(i, r, m);
+            int b = naPosicao(m - 1 - i, r, m);
+            if (a >= rating.length || b >= rating.length) {
+                return;
+            }
+            /* O clube fixo alterna casa/fora; nos outros pares a casa é o primeiro */
+            if (i == 0 && (r & 1) == 1) {
+                jogar(b, a, SimuladorLote.seedJogo(seed, (int) (base + i)));
+            }
+            else {
+                jogar(a, b, SimuladorLote.seedJogo(seed, (int) (base + i)));
+            }
+        });
+        jogos += rating.length % 2 == 0 ? porJornada : porJornada - 1;
+        if (vivo != null) {
+            /* Só os clubes que jogaram mudaram; fora do forEach porque o RankingVivo não é partilhável */
+            for (int i = 0; i < porJornada; i++) {
+                int a = naPosicao(i, r, m);
+                int b = naPosicao(m - 1 - i, r, m);
+                if (a < rating.length && b < rating.length) {
+                    vivo.definir(a, (int) Math.round(rating[a]));
+                    vivo.definir(b, (int) Math.round(rating[b]));
+                }
+            }
+        }
+    }
+
+    /* Ranking pelos pontos (rating arredondado, como em escreverRanking) atualizado no fim de
+       cada jornada; criado na primeira vez que é pedido, até lá as jornadas não pagam nada */
+    public RankingVivo rankingVivo() {
+        if (vivo == null) {
+            int[] pts = new int[rating.length];
+            for (int c = 0; c < pts.length; c++) {
+                pts[c] = (int) Math.round(rating[c]);
+            }
+            vivo = new RankingVivo(pts);
+        }
+        return vivo;
+    }
+
+    /* Clubes por rating, do melhor para o pior (empates pela ordem da tabela) */
+    public int[] classificacao() {
+        return IntStream.range(0, rating.length).boxed()
+                .sorted((x, y) -> {
+                    int c = Double.compare(rating[y], rating[x]);
+                    return c != 0 ? c : Integer.compare(x, y);
+                })
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    /* Novo ranking no formato do ficheiro original, para ser lido pelo ClubRankingTable:
+       point score = rating arredondado, previous point scored = point score de antes,
+       1 year change = lugares ganhos (negativo se desceu) e symbol change = sinal dessa mudança
+       (+, - ou 0 se ficou no mesmo lugar) */
+    public void escreverRanking(Path ficheiro) throws IOException {
+        int[] ordem = classificacao();
+        try (BufferedWriter w = Files.newBufferedWriter(ficheiro, StandardCharsets.UTF_8)) {
+            w.write("ranking,club name ,country,point score,1 year change,previous point scored,symbol change\n");
+            int lugar = 0;
+            long anterior = Long.MIN_VALUE;
+            for (int k = 0; k < ordem.length; k++) {
+                int c = ordem[k];
+                long pts = Math.round(rating[c]);
+                if (pts != anterior) {
+                    lugar = k + 1;
+                    anterior = pts;
+                }
+                w.write(Integer.toString(lugar));
+                w.write(',');
+                w.write(tabela.nomeClube(tabela.clube(c)));
+                w.write(',');
+                w.write(tabela.nomePais(tabela.pais(c)));
+                w.write(',');
+                w.write(Long.toString(pts));
+                w.write(',');
+                int subiu = tabela.ranking(c) - lugar;
+                w.write(Integer.toString(subiu));
+                w.write(',');
+                w.write(Integer.toString(tabela.pontos(c)));
+                w.write(',');
+                w.write(subiu > 0 ? '+' : subiu < 0 ? '-' : '0');
+                w.write('\n');
+            }
+        }
+    }
+
+    private void jogar(int casa, int fora, long aleatorio) {
+        double e = 1 / (1 + Math.pow(10, (forca[fora] - forca[casa]) / 400));
+        double empate = EMPATE * 2 * Math.min(e, 1 - e);
+        double u = (aleatorio >>> 11) * 0x1.0p-53;
+        double s;
+        if (u < e - empate / 2) {
+            s = 1;
+            vitorias[casa]++;
+            derrotas[fora]++;
+        }
+        else if (u < e + empate / 2) {
+            s = 0.5;
+            empates[casa]++;
+            empates[fora]++;
+        }
+        else {
+            s = 0;
+            derrotas[casa]++;
+            vitorias[fora]++;
+        }
+        double d = k * (s - e);
+        rating[casa] += d;
+        rating[fora] -= d;
+    }
+
+    /* Clubes mais um fantasma (folga) se forem ímpares */
+    private int participantes() {
+        return rating.length + (rating.length & 1);
+    }
+
+    /* Método do círculo: a posição 0 fica fixa e as outras rodam uma casa por jornada */
+    private static int naPosicao(int p, int r, int m) {
+        return p == 0 ? 0 : 1 + (p - 1 + r) % (m - 1);
+    }
+
+}
@@ -0,0 +1,129 @@
+package aula07;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/* Simula muitos jogos independentes em paralelo (ForkJoinPool, work-stealing).
+   Cada jogo usa cópias das equipas e uma seed derivada do seu index, por isso
+   o resultado é o mesmo qualquer que seja o número de threads. */
+public class SimuladorLote {
+
+    private static final int JOGOS_POR_TAREFA = 16;
+
+    private final ForkJoinPool pool;
+
+    public SimuladorLote() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SimuladorLote(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /* Jogo i: equipas.get(casa[i]) contra equipas.get(fora[i]). Os jogos são validados antes de
+       irem para o pool, assim um erro sai daqui e não de dentro de uma thread */
+    public ResumoLote simular(List<Equipa> equipas, int[] casa, int[] fora, long seed) {
+        if (casa.length != fora.length) {
+            throw new IllegalArgumentException("Listas de jogos com tamanhos diferentes!");
+        }
+        Equipa[] eqs = equipas.toArray(new Equipa[0]);
+        for (int i = 0; i < casa.length; i++) {
+            validar(eqs, casa[i], i);
+            validar(eqs, fora[i], i);
+            if (casa[i] == fora[i]) {
+                throw new IllegalArgumentException("Jogo " + i + ": equipa " + casa[i] + " contra si própria!");
+            }
+        }
+        return pool.invoke(new Tarefa(eqs, casa, fora, seed, 0, casa.length));
+    }
+
+    /* Todos contra todos, a duas voltas */
+    public ResumoLote temporada(List<Equipa> equipas, long seed) {
+        int n = equipas.size();
+        int[] casa = new int[n * (n - 1)];
+        int[] fora = new int[casa.length];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i != j) {
+                    casa[k] = i;
+                    fora[k] = j;
+                    k++;
+                }
+            }
+        }
+        return simular(equipas, casa, fora, seed);
+    }
+
+    private static void validar(Equipa[] eqs, int e, int jogo) {
+        if (e < 0 || e >= eqs.length) {
+            throw new IllegalArgumentException("Jogo " + jogo + ": equipa " + e + " não existe!");
+        }
+        if (eqs[e].getjogadores().isEmpty()) {
+            throw new IllegalArgumentException("Jogo " + jogo + ": equipa " + eqs[e].getNome() + " sem jogadores!");
+        }
+    }
+
+    static long seedJogo(long seed, int jogo) {
+        long z = seed + (jogo + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static class Tarefa extends RecursiveTask<ResumoLote> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Equipa[] equipas;
+        private final int[] casa;
+        private final int[] fora;
+        private final long seed;
+        private final int inicio;
+        private final int fim;
+
+        Tarefa(Equipa[] equipas, int[] casa, int[] fora, long seed, int inicio, int fim) {
+            this.equipas = equipas;
+            this.casa = casa;
+            this.fora = fora;
+            this.seed = seed;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected ResumoLote compute() {
+            if (fim - inicio <= JOGOS_POR_TAREFA) {
+                ResumoLote resumo = new ResumoLote(equipas.length);
+                for (int i = inicio; i < fim; i++) {
+                    jogar(i, resumo);
+                }
+                return resumo;
+            }
+            int meio = (inicio + fim) >>> 1;
+            Tarefa esq = new Tarefa(equipas, casa, fora, seed, inicio, meio);
+            Tarefa dir = new Tarefa(equipas, casa, fora, seed, meio, fim);
+            esq.fork();
+            ResumoLote resumo = dir.compute();
+            resumo.juntar(esq.join());
+            return resumo;
+        }
+
+        private void jogar(int i, ResumoLote resumo) {
+            Equipa e1 = equipas[casa[i]].copia();
+            Equipa e2 = equipas[fora[i]].copia();
+
+            /* Equipa visitante no outro meio campo (como o Ex03.inGameXY) */
+            for (Robo r : e2.getjogadores()) {
+                r.setX(MotorJogo.CAMPO_X - r.getX());
+            }
+
+            Jogo jogo = new Jogo(90, 0, new Bola("branca", 45, 25, 0), e1, e2);
+            long s = seedJogo(seed, i);
+            MotorJogo motor = new MotorJogo(jogo, new DecisorAleatorio(s), ~s).simular();
+            resumo.registar(casa[i], fora[i], motor.getGolos1(), motor.getGolos2());
+        }
+    }
+
+}
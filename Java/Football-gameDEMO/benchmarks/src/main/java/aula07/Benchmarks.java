@@ -0,0 +1,29 @@
+package aula07;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/* Sem argumentos corre todos os benchmarks com o GCProfiler (alocação por operação);
+   com argumentos passa-os ao JMH, ex.: Movel -prof gc */
+public class Benchmarks {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        Options opt = new OptionsBuilder()
+                .include("aula07\\..*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .build();
+        try {
+            new Runner(opt).run();
+        } catch (RunnerException e) {
+            System.out.println("Erro nos benchmarks: " + e.getMessage());
+        }
+    }
+
+}
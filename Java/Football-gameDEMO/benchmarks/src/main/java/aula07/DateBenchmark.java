@@ -0,0 +1,57 @@
+package aula07;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateBenchmark {
+
+    /* Anos entre a data e a referência 01/01/2000 */
+    @Param({"1", "50"})
+    private int anos;
+
+    private DateYMD ref;
+    private DateYMD[] datas;
+    private int i;
+
+    @Setup
+    public void setup() {
+        ref = new DateYMD(1, 1, 2000);
+        datas = new DateYMD[1024];
+        for (int j = 0; j < datas.length; j++) {
+            datas[j] = new DateYMD(1 + j % 28, 1 + j % 12, 2000 + anos - (j & 1));
+        }
+    }
+
+    @Benchmark
+    public int numDays() {
+        DateYMD d = datas[i++ & 1023];
+        return Date.numDays(d.getDay(), d.getMonth(), d.getYear(), ref);
+    }
+
+    @Benchmark
+    public int compareTo() {
+        return datas[i++ & 1023].compareTo(datas[i & 1023]);
+    }
+
+    @Benchmark
+    public int hashCodeDate() {
+        return datas[i++ & 1023].hashCode();
+    }
+
+}
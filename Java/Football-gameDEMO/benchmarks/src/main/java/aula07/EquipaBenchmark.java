@@ -0,0 +1,49 @@
+package aula07;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EquipaBenchmark {
+
+    @Param({"11", "2000"})
+    private int jogadores;
+
+    private Equipa equipa;
+    private String[] ids;
+    private int i;
+
+    @Setup
+    public void setup() {
+        ArrayList<Robo> lista = new ArrayList<>();
+        ids = new String[jogadores];
+        for (int j = 0; j < jogadores; j++) {
+            ids[j] = "robo" + j;
+            lista.add(new Robo(ids[j], "MD", 0, j % 46, j % 46, 0));
+        }
+        equipa = new Equipa("Equipa", "Responsavel", 0, 0, lista);
+    }
+
+    @Benchmark
+    public Robo choosePlayear() {
+        i++;
+        return equipa.ChoosePlayear(ids[i % ids.length]);
+    }
+
+}
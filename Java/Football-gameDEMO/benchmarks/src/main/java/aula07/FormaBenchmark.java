@@ -0,0 +1,76 @@
+package aula07;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/* area()/perimetro() sobre um array misto das três formas (chamadas megamórficas),
+   contra as mesmas formas em FormasColunares (ciclos monomórficos por tipo) */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormaBenchmark {
+
+    private Forma[] formas;
+    private FormasColunares colunas;
+
+    @Setup
+    public void setup() {
+        formas = new Forma[3000];
+        for (int j = 0; j < formas.length; j++) {
+            switch (j % 3) {
+                case 0:
+                    formas[j] = new Circle(1 + j % 7, new Ponto(j, j), "azul");
+                    break;
+                case 1:
+                    formas[j] = new Retangle(1 + j % 5, 2 + j % 3, "verde");
+                    break;
+                default:
+                    formas[j] = new Triangle(3, 4, 5 + j % 2, "vermelho");
+                    break;
+            }
+        }
+        colunas = FormasColunares.de(Arrays.asList(formas));
+    }
+
+    @Benchmark
+    public double area() {
+        double s = 0;
+        for (Forma f : formas) {
+            s += f.area();
+        }
+        return s;
+    }
+
+    @Benchmark
+    public double perimetro() {
+        double s = 0;
+        for (Forma f : formas) {
+            s += f.perimetro();
+        }
+        return s;
+    }
+
+    @Benchmark
+    public double areaColunar() {
+        return colunas.somaAreas();
+    }
+
+    @Benchmark
+    public double perimetroColunar() {
+        return colunas.somaPerimetros();
+    }
+
+}
@@ -0,0 +1,55 @@
+package aula07;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/* Um jogo completo de 90 minutos no MotorJogo, 11 contra 11. As equipas são refeitas antes de
+   cada invocação (o jogo mexe nas posições e nos golos delas) e a seed é sempre a mesma, por
+   isso todas as invocações medem exatamente o mesmo jogo. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JogoBenchmark {
+
+    private static final long SEED = 42;
+
+    private Equipa equipa1;
+    private Equipa equipa2;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        equipa1 = equipa("A", false);
+        equipa2 = equipa("B", true);
+    }
+
+    @Benchmark
+    public int jogoCompleto() {
+        Jogo jogo = new Jogo(90, 0, new Bola("branca", 45, 25, 0), equipa1, equipa2);
+        MotorJogo motor = new MotorJogo(jogo, new DecisorAleatorio(SEED), ~SEED).simular();
+        return motor.getGolos1() - motor.getGolos2();
+    }
+
+    private static Equipa equipa(String nome, boolean direita) {
+        ArrayList<Robo> jogadores = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            int x = 4 + i * 4;
+            jogadores.add(new Robo(nome + i, "MD", 0, direita ? 90 - x : x, 3 + i * 4, 0));
+        }
+        return new Equipa(nome, "Responsavel", 0, 0, jogadores);
+    }
+
+}
@@ -0,0 +1,38 @@
+package aula07;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovelBenchmark {
+
+    private Robo robo;
+    private int i;
+
+    @Setup
+    public void setup() {
+        robo = new Robo("r1", "MD", 0, 10, 10, 0);
+    }
+
+    @Benchmark
+    public double move() {
+        i++;
+        robo.move(i % 91, i % 51);
+        return robo.getDist();
+    }
+
+}